@@ -0,0 +1,75 @@
+package Behavioral.State;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Compares three ways of running purchases through a simulated remote link:
+ * one call per command, one batch per purchase, and large batches with
+ * several in flight. Pass the round trip in microseconds as the first
+ * argument.
+ */
+public class BatchBenchmark {
+    private static final int MACHINES = 100_000;
+    private static final int BATCH_PURCHASES = 256;
+    private static final int IN_FLIGHT = 8;
+
+    public static void main(String[] args) throws ExecutionException, InterruptedException {
+        long roundTripMicros = args.length > 0 ? Long.parseLong(args[0]) : 500;
+        VendingFleet fleet = new VendingFleet(MACHINES, TransitionTable.standard());
+        try (FleetService server = new FleetService(fleet);
+                LocalTransport client = new LocalTransport(server, roundTripMicros)) {
+            BatchResult sample = client.submit(new CommandBatch().purchase(7).purchase(7)).get();
+            System.out.println("Two purchases on one machine:");
+            for (int i = 0; i < sample.size(); i++) {
+                System.out.println("  " + sample.get(i).getMessage());
+            }
+            System.out.printf("%nRound trip %d us%n", roundTripMicros);
+
+            SplittableRandom random = new SplittableRandom(1);
+            int purchases = 600;
+            long begin = System.nanoTime();
+            for (int i = 0; i < purchases; i++) {
+                int machine = random.nextInt(MACHINES);
+                client.submit(new CommandBatch(1).add(machine, Command.INSERT_MONEY)).get();
+                client.submit(new CommandBatch(1).add(machine, Command.SELECT_PRODUCT)).get();
+                client.submit(new CommandBatch(1).add(machine, Command.DISPENSE)).get();
+            }
+            report("One call per command", purchases, System.nanoTime() - begin);
+
+            begin = System.nanoTime();
+            for (int i = 0; i < purchases; i++) {
+                client.submit(new CommandBatch(3).purchase(random.nextInt(MACHINES))).get();
+            }
+            report("One batch per purchase", purchases, System.nanoTime() - begin);
+
+            int batches = 400;
+            Queue<CompletableFuture<BatchResult>> inFlight = new ArrayDeque<>();
+            long dispensed = 0;
+            begin = System.nanoTime();
+            for (int b = 0; b < batches; b++) {
+                if (inFlight.size() == IN_FLIGHT) {
+                    dispensed += inFlight.remove().get().count(Outcome.PRODUCT_DISPENSED);
+                }
+                CommandBatch batch = new CommandBatch(3 * BATCH_PURCHASES);
+                for (int i = 0; i < BATCH_PURCHASES; i++) {
+                    batch.purchase(random.nextInt(MACHINES));
+                }
+                inFlight.add(client.submit(batch));
+            }
+            while (!inFlight.isEmpty()) {
+                dispensed += inFlight.remove().get().count(Outcome.PRODUCT_DISPENSED);
+            }
+            report(BATCH_PURCHASES + " purchases per batch, " + IN_FLIGHT + " in flight",
+                    batches * BATCH_PURCHASES, System.nanoTime() - begin);
+            System.out.println("Products dispensed in the pipelined run: " + dispensed);
+        }
+    }
+
+    private static void report(String name, long purchases, long nanos) {
+        System.out.printf("%-40s %,12.0f purchases/s%n", name, purchases * 1e9 / nanos);
+    }
+}
@@ -0,0 +1,37 @@
+package Behavioral.State;
+
+/**
+ * The outcome of every command in a {@link CommandBatch}, in the same order.
+ */
+public class BatchResult {
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    private final byte[] outcomes;
+
+    BatchResult(byte[] outcomes) {
+        this.outcomes = outcomes;
+    }
+
+    public int size() {
+        return outcomes.length;
+    }
+
+    public Outcome get(int index) {
+        return OUTCOMES[outcomes[index]];
+    }
+
+    public int count(Outcome outcome) {
+        int count = 0;
+        for (byte code : outcomes) {
+            if (code == outcome.ordinal()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Outcome ordinals, one byte per command
+    byte[] codes() {
+        return outcomes;
+    }
+}
@@ -0,0 +1,10 @@
+package Behavioral.State;
+
+/**
+ * The actions a customer can take on a vending machine.
+ */
+public enum Command {
+    INSERT_MONEY,
+    SELECT_PRODUCT,
+    DISPENSE
+}
@@ -0,0 +1,71 @@
+package Behavioral.State;
+
+import java.util.Arrays;
+
+/**
+ * A sequence of commands for one or many machines, sent to a
+ * {@link VendingService} in a single call. Commands for the same machine run
+ * in the order they were added.
+ */
+public class CommandBatch {
+    private static final Command[] COMMANDS = Command.values();
+
+    private int[] events;
+    private int size;
+
+    public CommandBatch() {
+        this(16);
+    }
+
+    public CommandBatch(int expectedSize) {
+        this.events = new int[Math.max(1, expectedSize)];
+    }
+
+    CommandBatch(int[] events, int size) {
+        this.events = events;
+        this.size = size;
+    }
+
+    public CommandBatch add(int machine, Command command) {
+        if (machine < 0 || machine >= FleetEvent.MAX_MACHINES) {
+            throw new IllegalArgumentException("Invalid machine id: " + machine);
+        }
+        if (size == events.length) {
+            events = Arrays.copyOf(events, size * 2);
+        }
+        events[size++] = FleetEvent.of(machine, command);
+        return this;
+    }
+
+    /**
+     * Adds a full purchase: insert money, select a product and dispense it.
+     */
+    public CommandBatch purchase(int machine) {
+        return add(machine, Command.INSERT_MONEY).add(machine, Command.SELECT_PRODUCT)
+                .add(machine, Command.DISPENSE);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getMachine(int index) {
+        return FleetEvent.machineOf(event(index));
+    }
+
+    public Command getCommand(int index) {
+        return COMMANDS[FleetEvent.codeOf(event(index))];
+    }
+
+    // The commands encoded as FleetEvents
+    int event(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+        return events[index];
+    }
+
+    int[] events() {
+        return events;
+    }
+}
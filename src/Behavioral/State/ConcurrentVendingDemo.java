@@ -0,0 +1,166 @@
+package Behavioral.State;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A stress test for ConcurrentVendingMachine: several threads insert money,
+ * select, dispense and ask for refunds on one machine at the same time.
+ * Afterwards no money may be lost and every product taken must be paid for.
+ *
+ * A second run uses machines with one or two products per slot, so threads
+ * keep racing for the last product. Each of those machines must sell exactly
+ * its stock, and no slot may ever show a negative count.
+ * Pass the number of threads and the operations per thread as arguments.
+ */
+public class ConcurrentVendingDemo {
+    private static final int[] PRICES = { 100, 150, 250, 75 };
+    private static final int LOW_STOCK_MACHINES = 2_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+
+        System.out.println("== Plenty of stock ==");
+        int[] stock = { 50_000, 50_000, 50_000, 50_000 };
+        long begin = System.nanoTime();
+        Result result = stress(threads, operations, stock, false);
+        long nanos = System.nanoTime() - begin;
+        System.out.printf("%d threads, %,d commands in %d ms%n", threads, (long) threads * operations,
+                nanos / 1_000_000);
+        result.print();
+        boolean consistent = result.consistent;
+
+        System.out.println();
+        System.out.println("== Low stock, " + LOW_STOCK_MACHINES + " machines ==");
+        int[] lowStock = { 1, 2, 1, 1 };
+        int initial = 0;
+        for (int count : lowStock) {
+            initial += count;
+        }
+        int oversold = 0;
+        int unsold = 0;
+        for (int run = 0; run < LOW_STOCK_MACHINES && consistent; run++) {
+            // Threads keep going until the machine is sold out
+            Result low = stress(threads, Integer.MAX_VALUE, lowStock, true);
+            if (!low.consistent) {
+                low.print();
+                consistent = false;
+            }
+            if (low.machine.getDispensedCount() > initial || low.negativeStockSeen) {
+                oversold++;
+            } else if (low.machine.getDispensedCount() < initial) {
+                unsold++;
+            }
+        }
+        System.out.println("Machines that sold more than their stock: " + oversold
+                + ", that did not sell out: " + unsold);
+        consistent &= oversold == 0 && unsold == 0;
+
+        System.out.println(consistent ? "OK: every product was paid for, no money was lost and no product was "
+                + "sold twice" : "FAILED: the machine lost track of money or products");
+        if (!consistent) {
+            System.exit(1);
+        }
+    }
+
+    private static Result stress(int threads, int operations, int[] stock, boolean untilSoldOut)
+            throws InterruptedException {
+        ConcurrentVendingMachine machine = new ConcurrentVendingMachine(PRICES, stock, OutcomeSink.NONE);
+        Result result = new Result(machine);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < operations; i++) {
+                    switch (random.nextInt(4)) {
+                        case 0:
+                            int amount = 25 * (1 + random.nextInt(8));
+                            if (machine.insertMoney(amount) == Outcome.MONEY_ACCEPTED) {
+                                result.inserted.add(amount);
+                            }
+                            break;
+                        case 1:
+                            int slot = random.nextInt(PRICES.length);
+                            machine.selectProduct(slot);
+                            if (machine.getInventory(slot) < 0) {
+                                result.negativeStockSeen = true;
+                            }
+                            break;
+                        case 2:
+                            if (machine.dispense() == Outcome.PRODUCT_DISPENSED) {
+                                result.dispensedOutcomes.increment();
+                            }
+                            break;
+                        default:
+                            if (random.nextInt(16) == 0) {
+                                result.refunded.add(machine.refund());
+                            }
+                    }
+                    if (untilSoldOut && soldOut(machine)) {
+                        break;
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        // A product selected last may still be waiting to be dispensed
+        if (machine.dispense() == Outcome.PRODUCT_DISPENSED) {
+            result.dispensedOutcomes.increment();
+        }
+        result.check(stock);
+        return result;
+    }
+
+    private static boolean soldOut(ConcurrentVendingMachine machine) {
+        for (int slot = 0; slot < machine.getSlotCount(); slot++) {
+            if (machine.getInventory(slot) > 0) {
+                return false;
+            }
+        }
+        String state = machine.getStateName();
+        return !state.equals("DISPENSING") && !state.equals("SELECTING");
+    }
+
+    private static final class Result {
+        final ConcurrentVendingMachine machine;
+        final LongAdder inserted = new LongAdder();
+        final LongAdder refunded = new LongAdder();
+        final LongAdder dispensedOutcomes = new LongAdder();
+        volatile boolean negativeStockSeen;
+        long taken;
+        long paidFor;
+        long balance;
+        boolean consistent;
+
+        Result(ConcurrentVendingMachine machine) {
+            this.machine = machine;
+        }
+
+        void check(int[] stock) {
+            for (int slot = 0; slot < PRICES.length; slot++) {
+                int left = machine.getInventory(slot);
+                negativeStockSeen |= left < 0;
+                int products = stock[slot] - left;
+                taken += products;
+                paidFor += (long) products * PRICES[slot];
+            }
+            balance = machine.getRevenue() + refunded.sum() + machine.getCredit();
+            consistent = machine.getDispensedCount() == taken && dispensedOutcomes.sum() == taken
+                    && inserted.sum() == balance && machine.getRevenue() == paidFor && !negativeStockSeen;
+        }
+
+        void print() {
+            System.out.println("Products dispensed: " + machine.getDispensedCount() + ", reported to callers: "
+                    + dispensedOutcomes.sum() + ", taken from slots: " + taken);
+            System.out.println("Money inserted: " + inserted.sum() + ", revenue + refunds + credit left: "
+                    + balance + ", revenue: " + machine.getRevenue() + ", price of products taken: " + paidFor);
+            if (negativeStockSeen) {
+                System.out.println("A slot was seen with a negative stock count");
+            }
+        }
+    }
+}
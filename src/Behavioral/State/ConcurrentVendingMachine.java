@@ -0,0 +1,235 @@
+package Behavioral.State;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A vending machine with several product slots and a credit balance that any
+ * number of threads can drive at once, for example a touch screen, a card
+ * reader and a remote app.
+ *
+ * State, credit and selected slot are packed into one long and changed with
+ * compare-and-set, so every command moves the machine from one consistent
+ * state to the next without a lock. A command that loses a race simply
+ * retries against the new state.
+ *
+ * The states follow {@link TransitionTable#standard()}: NO_MONEY, HAS_MONEY
+ * and DISPENSING. Unlike the simple machine, inserting more money adds to the
+ * credit, and what is left after a purchase stays as credit. A selection
+ * passes through a brief SELECTING state while it takes the product from its
+ * slot; other commands treat it like DISPENSING.
+ */
+public class ConcurrentVendingMachine {
+    static final int NO_MONEY = 0;
+    static final int HAS_MONEY = 1;
+    static final int DISPENSING = 2;
+    static final int SELECTING = 3;
+    private static final String[] STATE_NAMES = { "NO_MONEY", "HAS_MONEY", "DISPENSING", "SELECTING" };
+
+    // Bits 0-31: credit, 32-47: selected slot, 48-55: state
+    private static final long CREDIT_MASK = 0xFFFF_FFFFL;
+    private static final int SLOT_SHIFT = 32;
+    private static final int STATE_SHIFT = 48;
+    static final int MAX_SLOTS = 1 << 16;
+
+    private final int[] prices;
+    private final AtomicIntegerArray inventory;
+    private final AtomicLong packed = new AtomicLong(pack(NO_MONEY, 0, 0));
+    private final OutcomeSink sink;
+    private final LongAdder dispensed = new LongAdder();
+    private final LongAdder revenue = new LongAdder();
+
+    /**
+     * @param prices price of the product in each slot, in cents
+     * @param stock  initial number of products in each slot
+     */
+    public ConcurrentVendingMachine(int[] prices, int[] stock, OutcomeSink sink) {
+        if (prices.length != stock.length || prices.length == 0 || prices.length > MAX_SLOTS) {
+            throw new IllegalArgumentException("Need between 1 and " + MAX_SLOTS + " slots, with one price "
+                    + "and one stock count each");
+        }
+        for (int slot = 0; slot < prices.length; slot++) {
+            if (prices[slot] <= 0 || stock[slot] < 0) {
+                throw new IllegalArgumentException("Invalid price or stock for slot " + slot);
+            }
+        }
+        this.prices = prices.clone();
+        this.inventory = new AtomicIntegerArray(stock);
+        this.sink = sink;
+    }
+
+    public Outcome insertMoney(int amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive: " + amount);
+        }
+        while (true) {
+            long current = packed.get();
+            if (isBusy(stateOf(current))) {
+                return report(Outcome.PLEASE_WAIT);
+            }
+            long credit = creditOf(current) + amount;
+            if (credit > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Credit limit exceeded");
+            }
+            if (packed.compareAndSet(current, pack(HAS_MONEY, 0, (int) credit))) {
+                return report(Outcome.MONEY_ACCEPTED);
+            }
+        }
+    }
+
+    public Outcome selectProduct(int slot) {
+        checkSlot(slot);
+        while (true) {
+            long current = packed.get();
+            int state = stateOf(current);
+            if (state == NO_MONEY) {
+                return report(Outcome.INSERT_MONEY_FIRST);
+            }
+            if (isBusy(state)) {
+                return report(Outcome.PLEASE_WAIT);
+            }
+            int credit = creditOf(current);
+            if (credit < prices[slot]) {
+                return report(Outcome.NOT_ENOUGH_MONEY);
+            }
+            // Claim the machine first, so only this thread takes stock for
+            // it. Stock is then never out on loan to a selection that may
+            // still fail, and an empty slot really is empty
+            if (!packed.compareAndSet(current, pack(SELECTING, slot, credit))) {
+                continue;
+            }
+            if (!reserve(slot)) {
+                // No other command changes SELECTING, so a plain set is safe
+                packed.set(pack(HAS_MONEY, 0, credit));
+                return report(Outcome.OUT_OF_PRODUCTS);
+            }
+            // DISPENSING always ends in dispense(), which keeps the product
+            packed.set(pack(DISPENSING, slot, credit));
+            return report(Outcome.PRODUCT_SELECTED);
+        }
+    }
+
+    // Takes one product from the slot unless it is empty
+    private boolean reserve(int slot) {
+        while (true) {
+            int count = inventory.get(slot);
+            if (count == 0) {
+                return false;
+            }
+            if (inventory.compareAndSet(slot, count, count - 1)) {
+                return true;
+            }
+        }
+    }
+
+    public Outcome dispense() {
+        while (true) {
+            long current = packed.get();
+            int state = stateOf(current);
+            if (state == NO_MONEY) {
+                return report(Outcome.INSERT_MONEY_FIRST);
+            }
+            if (state == HAS_MONEY) {
+                return report(Outcome.SELECT_PRODUCT_FIRST);
+            }
+            if (state == SELECTING) {
+                return report(Outcome.PLEASE_WAIT);
+            }
+            int slot = slotOf(current);
+            int credit = creditOf(current) - prices[slot];
+            if (packed.compareAndSet(current, pack(credit > 0 ? HAS_MONEY : NO_MONEY, 0, credit))) {
+                // Only the thread that left DISPENSING gets here. The
+                // product was already taken from the slot by selectProduct
+                dispensed.increment();
+                revenue.add(prices[slot]);
+                return report(Outcome.PRODUCT_DISPENSED);
+            }
+        }
+    }
+
+    /**
+     * Returns all credit to the customer. Returns the amount refunded, or 0
+     * while a product is being selected or dispensed.
+     */
+    public int refund() {
+        while (true) {
+            long current = packed.get();
+            if (stateOf(current) != HAS_MONEY) {
+                return 0;
+            }
+            if (packed.compareAndSet(current, pack(NO_MONEY, 0, 0))) {
+                return creditOf(current);
+            }
+        }
+    }
+
+    public void restock(int slot, int count) {
+        checkSlot(slot);
+        if (count <= 0) {
+            throw new IllegalArgumentException("Count must be positive: " + count);
+        }
+        inventory.addAndGet(slot, count);
+    }
+
+    public int getCredit() {
+        return creditOf(packed.get());
+    }
+
+    public String getStateName() {
+        return STATE_NAMES[stateOf(packed.get())];
+    }
+
+    public int getSlotCount() {
+        return prices.length;
+    }
+
+    public int getPrice(int slot) {
+        checkSlot(slot);
+        return prices[slot];
+    }
+
+    public int getInventory(int slot) {
+        checkSlot(slot);
+        return inventory.get(slot);
+    }
+
+    public long getDispensedCount() {
+        return dispensed.sum();
+    }
+
+    public long getRevenue() {
+        return revenue.sum();
+    }
+
+    private static boolean isBusy(int state) {
+        return state == DISPENSING || state == SELECTING;
+    }
+
+    private Outcome report(Outcome outcome) {
+        sink.accept(outcome);
+        return outcome;
+    }
+
+    private void checkSlot(int slot) {
+        if (slot < 0 || slot >= prices.length) {
+            throw new IllegalArgumentException("No slot " + slot + ", the machine has " + prices.length);
+        }
+    }
+
+    static long pack(int state, int slot, int credit) {
+        return ((long) state << STATE_SHIFT) | ((long) slot << SLOT_SHIFT) | (credit & CREDIT_MASK);
+    }
+
+    static int stateOf(long packed) {
+        return (int) (packed >>> STATE_SHIFT) & 0xFF;
+    }
+
+    static int slotOf(long packed) {
+        return (int) (packed >>> SLOT_SHIFT) & 0xFFFF;
+    }
+
+    static int creditOf(long packed) {
+        return (int) (packed & CREDIT_MASK);
+    }
+}
@@ -0,0 +1,18 @@
+package Behavioral.State;
+
+import java.io.IOException;
+
+/**
+ * A stream of encoded {@link FleetEvent}s, read in batches.
+ */
+public interface EventSource extends AutoCloseable {
+    /**
+     * Fills {@code events} from the start and returns how many were written,
+     * or -1 when the stream has ended.
+     */
+    int read(int[] events) throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+}
@@ -0,0 +1,70 @@
+package Behavioral.State;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads events recorded in a file: encoded {@link FleetEvent}s as big-endian
+ * ints, with no header.
+ */
+public class FileEventSource implements EventSource {
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+
+    public FileEventSource(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        buffer.flip();
+    }
+
+    /**
+     * Records every event of {@code source} to {@code path}. Returns the
+     * number of events written.
+     */
+    public static long write(Path path, EventSource source) throws IOException {
+        long written = 0;
+        int[] events = new int[BUFFER_BYTES / Integer.BYTES];
+        ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            int count;
+            while ((count = source.read(events)) >= 0) {
+                bytes.clear();
+                bytes.asIntBuffer().put(events, 0, count);
+                bytes.limit(count * Integer.BYTES);
+                while (bytes.hasRemaining()) {
+                    out.write(bytes);
+                }
+                written += count;
+            }
+        }
+        return written;
+    }
+
+    @Override
+    public int read(int[] events) throws IOException {
+        if (buffer.remaining() < Integer.BYTES) {
+            buffer.compact();
+            int read = channel.read(buffer);
+            buffer.flip();
+            if (read < 0 && buffer.remaining() < Integer.BYTES) {
+                return -1;
+            }
+        }
+        IntBuffer ints = buffer.asIntBuffer();
+        int count = Math.min(events.length, ints.remaining());
+        ints.get(events, 0, count);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
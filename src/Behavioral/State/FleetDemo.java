@@ -0,0 +1,35 @@
+package Behavioral.State;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Runs generated events through a large fleet, then records a stream to a
+ * file and replays it. Pass the number of machines and events as arguments.
+ */
+public class FleetDemo {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int machines = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        long events = args.length > 1 ? Long.parseLong(args[1]) : 100_000_000L;
+        TransitionTable table = TransitionTable.standard();
+
+        VendingFleet fleet = new VendingFleet(machines, table);
+        System.out.printf("Fleet of %,d machines in %,d bytes%n", fleet.size(), (long) fleet.size());
+        FleetSimulator simulator = new FleetSimulator(fleet);
+        System.out.println("Warming up...");
+        simulator.run(new GeneratedEventSource(machines, events / 10, 1));
+        System.out.println(simulator.run(new GeneratedEventSource(machines, events, 2)));
+
+        Path recording = Files.createTempFile("fleet-events", ".bin");
+        try {
+            long recorded = FileEventSource.write(recording, new GeneratedEventSource(machines, events / 10, 3));
+            System.out.printf("%nReplaying %,d recorded events from %s%n", recorded, recording.getFileName());
+            try (FileEventSource source = new FileEventSource(recording)) {
+                System.out.println(new FleetSimulator(new VendingFleet(machines, table)).run(source));
+            }
+        } finally {
+            Files.deleteIfExists(recording);
+        }
+    }
+}
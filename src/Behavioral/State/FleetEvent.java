@@ -0,0 +1,35 @@
+package Behavioral.State;
+
+/**
+ * Encodes a fleet event, a command for one machine, as a single int so event
+ * streams can be kept in plain int arrays: the machine id in the upper 30 bits
+ * and the event code in the lower two.
+ */
+public final class FleetEvent {
+    // Event codes 0-2 are the Command ordinals
+    public static final int RESTOCK = 3;
+    public static final int MAX_MACHINES = 1 << 29;
+
+    private FleetEvent() {
+    }
+
+    public static int of(int machine, Command command) {
+        return encode(machine, command.ordinal());
+    }
+
+    public static int restock(int machine) {
+        return encode(machine, RESTOCK);
+    }
+
+    static int encode(int machine, int code) {
+        return machine << 2 | code;
+    }
+
+    public static int machineOf(int event) {
+        return event >>> 2;
+    }
+
+    public static int codeOf(int event) {
+        return event & 3;
+    }
+}
@@ -0,0 +1,561 @@
+package Behavioral.State;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Makes a {@link VendingFleet} survive restarts by writing every event to a
+ * journal before it is applied.
+ *
+ * Events are buffered and written in frames, each with its own checksum.
+ * Appending only copies events into the current frame. Full frames are handed
+ * to a writer thread, which checksums, writes and fsyncs them while the next
+ * frame fills, so a slow disk stalls appends only once every frame buffer is
+ * waiting. Frames are flushed to disk (fsync) in groups: once
+ * {@code syncEvery} events are waiting, or at the latest every
+ * {@code syncIntervalMillis}. A crash can lose at most the events since the
+ * last group commit.
+ *
+ * A snapshot stores the whole fleet and starts a new log, so recovery loads
+ * the snapshot and replays only the events logged after it. Snapshots must be
+ * taken while no events are being applied. With a snapshot interval, the
+ * {@link FleetSimulator} takes one whenever {@link #snapshotDue()} says so,
+ * at a point where all dispatched events have been applied.
+ *
+ * Files in the journal directory:
+ * - {@code snapshot.bin}: magic, version, sequence (long), machine count,
+ *   CRC32 of the machines, then one byte per machine
+ * - {@code journal-<sequence>.log}: magic, version, sequence of the first
+ *   event (long), then frames of event count, CRC32 and the events, all
+ *   big-endian ints
+ */
+public class FleetJournal implements Closeable {
+    public static final int DEFAULT_SYNC_EVERY = 1 << 20;
+    public static final long DEFAULT_SYNC_INTERVAL_MILLIS = 50;
+
+    private static final int LOG_MAGIC = 0x464A524E; // "FJRN"
+    private static final int SNAPSHOT_MAGIC = 0x46534E50; // "FSNP"
+    private static final int VERSION = 1;
+    private static final int LOG_HEADER_SIZE = 16;
+    private static final int SNAPSHOT_HEADER_SIZE = 24;
+    private static final int FRAME_HEADER_SIZE = 8;
+    private static final int FRAME_EVENTS = 1 << 16;
+    // One frame fills while the others wait for the writer
+    private static final int FRAME_BUFFERS = 4;
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+
+    private final Path directory;
+    private final VendingFleet fleet;
+    private final int syncEvery;
+    private final long snapshotIntervalNanos;
+    private final CRC32 crc = new CRC32();
+    private final ScheduledExecutorService syncer;
+    private final Thread writer;
+    private final BlockingQueue<Frame> free = new ArrayBlockingQueue<>(FRAME_BUFFERS);
+    private final BlockingQueue<Frame> full = new ArrayBlockingQueue<>(FRAME_BUFFERS + 1);
+    private final long recoveredEvents;
+    private final long recoveryNanos;
+
+    // Guarded by this: the appending side
+    private Frame filling;
+    private long sequence;
+    // Sequence of the last event a group commit was requested for
+    private long syncRequested;
+
+    // Guarded by channelLock: the writing side. Appends never take it
+    private final Object channelLock = new Object();
+    private final CRC32 frameCrc = new CRC32();
+    private FileChannel log;
+    private long durable;
+    private long syncCount;
+    private volatile IOException failure;
+
+    private volatile long lastSnapshotNanos = System.nanoTime();
+    private volatile long snapshotCount;
+
+    // Events of one frame, with the sequence after its last event
+    private static final class Frame {
+        final ByteBuffer buffer;
+        long endSequence;
+        boolean sync;
+
+        Frame(int events) {
+            buffer = ByteBuffer.allocateDirect(FRAME_HEADER_SIZE + events * Integer.BYTES);
+            buffer.position(FRAME_HEADER_SIZE);
+        }
+    }
+
+    /**
+     * Opens the journal in {@code directory}, creating it if needed, and
+     * restores {@code fleet} from the snapshot and log found there.
+     */
+    public static FleetJournal open(Path directory, VendingFleet fleet) throws IOException {
+        return open(directory, fleet, DEFAULT_SYNC_EVERY, DEFAULT_SYNC_INTERVAL_MILLIS);
+    }
+
+    public static FleetJournal open(Path directory, VendingFleet fleet, int syncEvery, long syncIntervalMillis)
+            throws IOException {
+        return open(directory, fleet, syncEvery, syncIntervalMillis, 0);
+    }
+
+    /**
+     * @param snapshotIntervalMillis how often {@link #snapshotDue()} asks for
+     *                               a snapshot, or 0 for never
+     */
+    public static FleetJournal open(Path directory, VendingFleet fleet, int syncEvery, long syncIntervalMillis,
+            long snapshotIntervalMillis) throws IOException {
+        if (syncEvery <= 0 || syncIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Sync batch size and interval must be positive");
+        }
+        if (snapshotIntervalMillis < 0) {
+            throw new IllegalArgumentException("Snapshot interval must not be negative");
+        }
+        Files.createDirectories(directory);
+        return new FleetJournal(directory, fleet, syncEvery, syncIntervalMillis, snapshotIntervalMillis);
+    }
+
+    private FleetJournal(Path directory, VendingFleet fleet, int syncEvery, long syncIntervalMillis,
+            long snapshotIntervalMillis) throws IOException {
+        this.directory = directory;
+        this.fleet = fleet;
+        this.syncEvery = syncEvery;
+        this.snapshotIntervalNanos = TimeUnit.MILLISECONDS.toNanos(snapshotIntervalMillis);
+        long begin = System.nanoTime();
+        long snapshotSequence = loadSnapshot();
+        this.sequence = snapshotSequence;
+        replayLogs(snapshotSequence);
+        this.recoveredEvents = sequence - snapshotSequence;
+        this.recoveryNanos = System.nanoTime() - begin;
+        this.syncRequested = sequence;
+        this.durable = sequence;
+        startLog();
+        this.filling = new Frame(FRAME_EVENTS);
+        for (int i = 1; i < FRAME_BUFFERS; i++) {
+            free.add(new Frame(FRAME_EVENTS));
+        }
+
+        this.writer = new Thread(this::writeFrames, "fleet-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        this.syncer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "fleet-journal-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncer.scheduleWithFixedDelay(this::syncQuietly, syncIntervalMillis, syncIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Logs one event. Call before applying it to the fleet.
+     */
+    public synchronized void append(int event) throws IOException {
+        checkFailure();
+        filling.buffer.putInt(event);
+        eventsAdded(1);
+    }
+
+    /**
+     * Logs {@code count} events from the start of {@code events}.
+     */
+    public synchronized void append(int[] events, int count) throws IOException {
+        checkFailure();
+        int offset = 0;
+        while (offset < count) {
+            ByteBuffer buffer = filling.buffer;
+            int chunk = Math.min(buffer.remaining() / Integer.BYTES, count - offset);
+            buffer.asIntBuffer().put(events, offset, chunk);
+            buffer.position(buffer.position() + chunk * Integer.BYTES);
+            offset += chunk;
+            eventsAdded(chunk);
+        }
+    }
+
+    private void eventsAdded(int count) throws IOException {
+        sequence += count;
+        boolean sync = sequence - syncRequested >= syncEvery;
+        if (sync || !filling.buffer.hasRemaining()) {
+            handOff(sync);
+        }
+    }
+
+    // Passes the current frame to the writer and starts filling the next.
+    // Waits only if the writer still holds every other frame
+    private void handOff(boolean sync) throws IOException {
+        filling.endSequence = sequence;
+        filling.sync = sync;
+        if (sync) {
+            syncRequested = sequence;
+        }
+        try {
+            full.put(filling);
+            filling = free.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the journal writer");
+        }
+    }
+
+    /**
+     * Writes and fsyncs all logged events. Returns once they are durable.
+     * Other threads can keep appending meanwhile.
+     */
+    public void sync() throws IOException {
+        long target;
+        synchronized (this) {
+            checkFailure();
+            target = sequence;
+            if (target > syncRequested) {
+                handOff(true);
+            }
+        }
+        synchronized (channelLock) {
+            while (durable < target) {
+                checkFailure();
+                try {
+                    channelLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for the journal to sync");
+                }
+            }
+        }
+        checkFailure();
+    }
+
+    // Runs every syncIntervalMillis so events never wait long for a fsync
+    private void syncQuietly() {
+        try {
+            synchronized (this) {
+                if (sequence > syncRequested && failure == null) {
+                    handOff(true);
+                }
+            }
+        } catch (IOException e) {
+            // Retried on the next interval, and reported by the next explicit sync
+            e.printStackTrace();
+        }
+    }
+
+    // The writer thread: checksums and writes frames in order, and fsyncs
+    // when a frame asks for it. After a failure it keeps recycling frames so
+    // appenders are not blocked; they see the failure instead
+    private void writeFrames() {
+        try {
+            while (true) {
+                Frame frame = full.take();
+                if (frame.endSequence < 0) {
+                    return;
+                }
+                if (failure == null) {
+                    synchronized (channelLock) {
+                        try {
+                            writeFrame(frame.buffer);
+                            if (frame.sync && frame.endSequence > durable) {
+                                log.force(false);
+                                durable = frame.endSequence;
+                                syncCount++;
+                            }
+                        } catch (IOException e) {
+                            failure = e;
+                        } catch (RuntimeException e) {
+                            failure = new IOException(e);
+                        }
+                        channelLock.notifyAll();
+                    }
+                }
+                frame.buffer.clear().position(FRAME_HEADER_SIZE);
+                free.put(frame);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        IOException e = failure;
+        if (e != null) {
+            throw new IOException("The journal could not be written", e);
+        }
+    }
+
+    /**
+     * Whether the snapshot interval given to {@code open} has passed since
+     * the last snapshot. Cheap enough to ask for every batch of events.
+     */
+    public boolean snapshotDue() {
+        return snapshotIntervalNanos > 0 && System.nanoTime() - lastSnapshotNanos >= snapshotIntervalNanos;
+    }
+
+    /**
+     * Stores the whole fleet and starts a new, empty log. The fleet must not
+     * change while this runs.
+     */
+    public synchronized void snapshot() throws IOException {
+        sync();
+        byte[] machines = fleet.rawMachines();
+        crc.reset();
+        crc.update(machines);
+        ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_SIZE);
+        header.putInt(SNAPSHOT_MAGIC).putInt(VERSION).putLong(sequence).putInt(machines.length)
+                .putInt((int) crc.getValue()).flip();
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(out, header);
+            writeFully(out, ByteBuffer.wrap(machines));
+            out.force(true);
+        }
+        // The old snapshot stays valid until the new one is complete
+        Files.move(temporary, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        // The rename must be durable before the logs it replaces are deleted
+        syncDirectory();
+        // Everything is durable and appends are blocked, so the writer is idle
+        synchronized (channelLock) {
+            log.close();
+            startLog();
+        }
+        for (Path old : logFiles()) {
+            if (baseOf(old) < sequence) {
+                Files.delete(old);
+            }
+        }
+        lastSnapshotNanos = System.nanoTime();
+        snapshotCount++;
+    }
+
+    /**
+     * Number of events logged since the journal was first created.
+     */
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    public long getSyncCount() {
+        synchronized (channelLock) {
+            return syncCount;
+        }
+    }
+
+    public long getSnapshotCount() {
+        return snapshotCount;
+    }
+
+    /**
+     * Number of events replayed from the log when the journal was opened.
+     */
+    public long getRecoveredEvents() {
+        return recoveredEvents;
+    }
+
+    public long getRecoveryNanos() {
+        return recoveryNanos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        syncer.shutdownNow();
+        try {
+            sync();
+        } finally {
+            try {
+                // The queue has room for every frame and this one, so this never waits
+                Frame stop = new Frame(0);
+                stop.endSequence = -1;
+                full.put(stop);
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while closing the journal");
+            } finally {
+                synchronized (channelLock) {
+                    log.close();
+                }
+            }
+        }
+    }
+
+    private void writeFrame(ByteBuffer frame) throws IOException {
+        int bytes = frame.position() - FRAME_HEADER_SIZE;
+        if (bytes == 0) {
+            return;
+        }
+        ByteBuffer events = frame.duplicate();
+        events.position(FRAME_HEADER_SIZE).limit(frame.position());
+        frameCrc.reset();
+        frameCrc.update(events);
+        frame.putInt(0, bytes / Integer.BYTES);
+        frame.putInt(4, (int) frameCrc.getValue());
+        frame.flip();
+        writeFully(log, frame);
+    }
+
+    private void startLog() throws IOException {
+        log = FileChannel.open(directory.resolve("journal-" + sequence + ".log"), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_SIZE);
+        header.putInt(LOG_MAGIC).putInt(VERSION).putLong(sequence).flip();
+        writeFully(log, header);
+        log.force(true);
+    }
+
+    // Returns the sequence the snapshot was taken at, or 0 without a snapshot
+    private long loadSnapshot() throws IOException {
+        Path path = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_SIZE);
+            readFully(in, header, 0);
+            header.flip();
+            if (header.getInt() != SNAPSHOT_MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a fleet snapshot: " + path);
+            }
+            long snapshotSequence = header.getLong();
+            int size = header.getInt();
+            int checksum = header.getInt();
+            if (size != fleet.size()) {
+                throw new IOException("Snapshot has " + size + " machines but the fleet has " + fleet.size());
+            }
+            byte[] machines = fleet.rawMachines();
+            ByteBuffer target = ByteBuffer.wrap(machines);
+            readFully(in, target, SNAPSHOT_HEADER_SIZE);
+            crc.reset();
+            crc.update(machines);
+            if ((int) crc.getValue() != checksum) {
+                throw new IOException("Corrupt snapshot: " + path);
+            }
+            return snapshotSequence;
+        }
+    }
+
+    // Applies every logged event after the snapshot, stopping at the first
+    // torn or corrupt frame: it was never fully synced
+    private void replayLogs(long snapshotSequence) throws IOException {
+        long[] outcomeCounts = new long[Outcome.values().length + 1];
+        int[] events = new int[FRAME_EVENTS];
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_SIZE);
+        ByteBuffer frameHeader = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+        ByteBuffer body = ByteBuffer.allocateDirect(FRAME_EVENTS * Integer.BYTES);
+        for (Path path : logFiles()) {
+            try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+                header.clear();
+                if (!readFully(in, header, 0) || header.getInt(0) != LOG_MAGIC || header.getInt(4) != VERSION) {
+                    continue;
+                }
+                long eventSequence = header.getLong(8);
+                if (eventSequence > sequence) {
+                    throw new IOException("Events " + sequence + " to " + eventSequence + " are missing before "
+                            + path);
+                }
+                long position = LOG_HEADER_SIZE;
+                while (true) {
+                    frameHeader.clear();
+                    if (!readFully(in, frameHeader, position)) {
+                        break;
+                    }
+                    int count = frameHeader.getInt(0);
+                    if (count <= 0 || count > FRAME_EVENTS) {
+                        break;
+                    }
+                    body.clear().limit(count * Integer.BYTES);
+                    if (!readFully(in, body, position + FRAME_HEADER_SIZE)) {
+                        break;
+                    }
+                    body.flip();
+                    crc.reset();
+                    crc.update(body.duplicate());
+                    if ((int) crc.getValue() != frameHeader.getInt(4)) {
+                        break;
+                    }
+                    body.asIntBuffer().get(events, 0, count);
+                    checkMachines(events, count, path);
+                    // Skip events the snapshot already contains
+                    int skip = (int) Math.max(0, Math.min(count, sequence - eventSequence));
+                    if (skip > 0) {
+                        System.arraycopy(events, skip, events, 0, count - skip);
+                    }
+                    fleet.process(events, count - skip, outcomeCounts);
+                    eventSequence += count;
+                    sequence = Math.max(sequence, eventSequence);
+                    position += FRAME_HEADER_SIZE + (long) count * Integer.BYTES;
+                }
+            }
+        }
+    }
+
+    // A logged event for a machine the fleet does not have means the log
+    // belongs to a different fleet or was written by a faulty client
+    private void checkMachines(int[] events, int count, Path path) throws IOException {
+        for (int i = 0; i < count; i++) {
+            int machine = FleetEvent.machineOf(events[i]);
+            if (machine >= fleet.size()) {
+                throw new IOException("Event for machine " + machine + " in " + path + " but the fleet has "
+                        + fleet.size());
+            }
+        }
+    }
+
+    // Makes renames in the journal directory durable. Some platforms, such
+    // as Windows, cannot open a directory; there the rename is left to the
+    // file system
+    private void syncDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (AccessDeniedException e) {
+            // Not supported on this platform
+        }
+    }
+
+    private List<Path> logFiles() throws IOException {
+        List<Path> logs = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "journal-*.log")) {
+            for (Path file : files) {
+                logs.add(file);
+            }
+        }
+        logs.sort((a, b) -> Long.compare(baseOf(a), baseOf(b)));
+        return logs;
+    }
+
+    private static long baseOf(Path log) {
+        String name = log.getFileName().toString();
+        return Long.parseLong(name.substring("journal-".length(), name.length() - ".log".length()));
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // Returns false if the file ends first
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,68 @@
+package Behavioral.State;
+
+/**
+ * The result of a {@link FleetSimulator} run.
+ */
+public class FleetReport {
+    private final long events;
+    private final long elapsedNanos;
+    private final int shards;
+    private final long[] outcomeCounts;
+    private final long[] sortedLatencies;
+
+    FleetReport(long events, long elapsedNanos, int shards, long[] outcomeCounts, long[] sortedLatencies) {
+        this.events = events;
+        this.elapsedNanos = elapsedNanos;
+        this.shards = shards;
+        this.outcomeCounts = outcomeCounts;
+        this.sortedLatencies = sortedLatencies;
+    }
+
+    public long getEvents() {
+        return events;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getEventsPerSecond() {
+        return events * 1e9 / Math.max(1, elapsedNanos);
+    }
+
+    public long getCount(Outcome outcome) {
+        return outcomeCounts[outcome.ordinal()];
+    }
+
+    public long getRestockCount() {
+        return outcomeCounts[outcomeCounts.length - 1];
+    }
+
+    /**
+     * Batch latency in nanoseconds at the given percentile, 0 to 100.
+     */
+    public long getLatencyPercentile(double percentile) {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, Math.min(sortedLatencies.length - 1, index))];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%,d events on %d shards in %d ms: %.1f M events/s%n",
+                events, shards, elapsedNanos / 1_000_000, getEventsPerSecond() / 1e6));
+        report.append(String.format("Batch latency: p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms%n",
+                getLatencyPercentile(50) / 1e6, getLatencyPercentile(99) / 1e6,
+                getLatencyPercentile(99.9) / 1e6, getLatencyPercentile(100) / 1e6));
+        for (Outcome outcome : Outcome.values()) {
+            if (getCount(outcome) > 0) {
+                report.append(String.format("  %-22s %,d%n", outcome, getCount(outcome)));
+            }
+        }
+        report.append(String.format("  %-22s %,d", "RESTOCKED", getRestockCount()));
+        return report.toString();
+    }
+}
@@ -0,0 +1,105 @@
+package Behavioral.State;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The server side of {@link VendingService}: runs batches against a
+ * {@link VendingFleet}.
+ *
+ * Like {@link FleetSimulator}, the fleet is split into shards of consecutive
+ * machines, each owned by one thread. A batch is split by shard and the parts
+ * run in parallel, so independent machines are served at the same time, and
+ * the next batch can start on a shard while other shards are still busy with
+ * the previous one.
+ */
+public class FleetService implements VendingService, AutoCloseable {
+    private static final Command[] COMMANDS = Command.values();
+
+    private final VendingFleet fleet;
+    private final ExecutorService[] shards;
+    private final int shardSize;
+
+    public FleetService(VendingFleet fleet) {
+        this(fleet, Runtime.getRuntime().availableProcessors());
+    }
+
+    public FleetService(VendingFleet fleet, int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        this.fleet = fleet;
+        int count = Math.min(shardCount, fleet.size());
+        this.shardSize = (fleet.size() + count - 1) / count;
+        this.shards = new ExecutorService[count];
+        for (int i = 0; i < count; i++) {
+            String name = "fleet-service-" + i;
+            shards[i] = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Splits the batch by shard and queues the parts. Synchronized so every
+     * shard sees batches in the order they were submitted.
+     */
+    @Override
+    public synchronized CompletableFuture<BatchResult> submit(CommandBatch batch) {
+        int size = batch.size();
+        int[] events = batch.events();
+        // Command indexes grouped by shard: counting sort on the shard number
+        int[] starts = new int[shards.length + 1];
+        for (int i = 0; i < size; i++) {
+            int machine = FleetEvent.machineOf(events[i]);
+            if (machine >= fleet.size()) {
+                return CompletableFuture.failedFuture(new IllegalArgumentException(
+                        "No machine " + machine + ", the fleet has " + fleet.size()));
+            }
+            starts[machine / shardSize + 1]++;
+        }
+        for (int shard = 0; shard < shards.length; shard++) {
+            starts[shard + 1] += starts[shard];
+        }
+        int[] order = new int[size];
+        int[] next = starts.clone();
+        for (int i = 0; i < size; i++) {
+            order[next[FleetEvent.machineOf(events[i]) / shardSize]++] = i;
+        }
+
+        byte[] outcomes = new byte[size];
+        CompletableFuture<?>[] parts = new CompletableFuture<?>[shards.length];
+        int used = 0;
+        for (int shard = 0; shard < shards.length; shard++) {
+            int from = starts[shard];
+            int to = starts[shard + 1];
+            if (from == to) {
+                continue;
+            }
+            parts[used++] = CompletableFuture.runAsync(() -> {
+                for (int k = from; k < to; k++) {
+                    int index = order[k];
+                    int event = events[index];
+                    outcomes[index] = (byte) fleet.handle(FleetEvent.machineOf(event),
+                            COMMANDS[FleetEvent.codeOf(event)]).ordinal();
+                }
+            }, shards[shard]);
+        }
+        if (used == 1) {
+            return parts[0].thenApply(done -> new BatchResult(outcomes));
+        }
+        CompletableFuture<?>[] running = Arrays.copyOf(parts, used);
+        return CompletableFuture.allOf(running).thenApply(done -> new BatchResult(outcomes));
+    }
+
+    @Override
+    public void close() {
+        for (ExecutorService shard : shards) {
+            shard.shutdown();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package Behavioral.State;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Feeds a stream of events through a {@link VendingFleet} on several cores.
+ *
+ * The fleet is split into shards of consecutive machines, one thread per
+ * shard. A dispatcher reads events from the source and sorts them into
+ * per-shard batches. Each machine is only ever touched by its shard's thread,
+ * so machines need no locking, and a batch is handed over only once it is
+ * full. Batches are recycled, so the steady state allocates nothing.
+ *
+ * Latency is measured per batch, from the first event entering the batch to
+ * the batch being processed, which bounds the latency of every event in it.
+ */
+public class FleetSimulator {
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+    // Batches in flight per shard; a full pipeline makes the dispatcher wait
+    private static final int BATCHES_PER_SHARD = 8;
+
+    private final VendingFleet fleet;
+    private final int shards;
+    private final int shardSize;
+    private final int batchSize;
+
+    public FleetSimulator(VendingFleet fleet) {
+        this(fleet, Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE);
+    }
+
+    public FleetSimulator(VendingFleet fleet, int shards, int batchSize) {
+        if (shards <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Shards and batch size must be positive");
+        }
+        this.fleet = fleet;
+        this.shards = Math.min(shards, fleet.size());
+        this.shardSize = (fleet.size() + this.shards - 1) / this.shards;
+        this.batchSize = batchSize;
+    }
+
+    private static final class Batch {
+        final int[] events;
+        int count;
+        long startNanos;
+
+        Batch(int size) {
+            events = new int[size];
+        }
+    }
+
+    private final class Shard extends Thread {
+        final BlockingQueue<Batch> free = new ArrayBlockingQueue<>(BATCHES_PER_SHARD);
+        final BlockingQueue<Batch> full = new ArrayBlockingQueue<>(BATCHES_PER_SHARD + 1);
+        final long[] outcomeCounts = new long[Outcome.values().length + 1];
+        long[] latencies = new long[1024];
+        int latencyCount;
+        volatile RuntimeException failure;
+
+        Shard(int index) {
+            super("fleet-shard-" + index);
+            setDaemon(true);
+            for (int i = 0; i < BATCHES_PER_SHARD; i++) {
+                free.add(new Batch(batchSize));
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    Batch batch = full.take();
+                    if (batch.count < 0) {
+                        return;
+                    }
+                    if (failure == null) {
+                        try {
+                            fleet.process(batch.events, batch.count, outcomeCounts);
+                        } catch (RuntimeException e) {
+                            // Keep draining so the dispatcher is not blocked
+                            failure = e;
+                        }
+                    }
+                    recordLatency(System.nanoTime() - batch.startNanos);
+                    batch.count = 0;
+                    free.put(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void recordLatency(long nanos) {
+            if (latencyCount == latencies.length) {
+                latencies = Arrays.copyOf(latencies, latencyCount * 2);
+            }
+            latencies[latencyCount++] = nanos;
+        }
+    }
+
+    /**
+     * Runs every event of {@code source} through the fleet and reports the
+     * throughput, batch latency and outcome counts.
+     */
+    public FleetReport run(EventSource source) throws IOException, InterruptedException {
+        return run(source, null);
+    }
+
+    /**
+     * Like {@link #run(EventSource)}, but logs every event to the journal
+     * before it is handed to a shard. When {@link FleetJournal#snapshotDue()}
+     * the dispatcher waits for the shards to apply every event handed out so
+     * far, then takes the snapshot while they are idle.
+     */
+    public FleetReport run(EventSource source, FleetJournal journal) throws IOException, InterruptedException {
+        Shard[] workers = new Shard[shards];
+        Batch[] current = new Batch[shards];
+        for (int i = 0; i < shards; i++) {
+            workers[i] = new Shard(i);
+            workers[i].start();
+            current[i] = workers[i].free.take();
+        }
+        int[] input = new int[batchSize];
+        long events = 0;
+        long begin = System.nanoTime();
+        try {
+            int read;
+            while ((read = source.read(input)) >= 0) {
+                // Checked before anything is logged or dispatched, so a bad
+                // event neither reaches the journal nor half-applies a batch
+                checkMachines(input, read);
+                if (journal != null) {
+                    journal.append(input, read);
+                }
+                for (int i = 0; i < read; i++) {
+                    int event = input[i];
+                    int shard = FleetEvent.machineOf(event) / shardSize;
+                    Batch batch = current[shard];
+                    if (batch.count == 0) {
+                        batch.startNanos = System.nanoTime();
+                    }
+                    batch.events[batch.count++] = event;
+                    if (batch.count == batchSize) {
+                        workers[shard].full.put(batch);
+                        current[shard] = workers[shard].free.take();
+                    }
+                }
+                events += read;
+                if (journal != null && journal.snapshotDue()) {
+                    quiesce(workers, current);
+                    journal.snapshot();
+                }
+            }
+        } finally {
+            for (int i = 0; i < shards; i++) {
+                if (current[i].count > 0) {
+                    workers[i].full.put(current[i]);
+                }
+                Batch stop = new Batch(0);
+                stop.count = -1;
+                workers[i].full.put(stop);
+            }
+            for (Shard worker : workers) {
+                worker.join();
+            }
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        long[] outcomeCounts = new long[Outcome.values().length + 1];
+        int latencyCount = 0;
+        for (Shard worker : workers) {
+            if (worker.failure != null) {
+                throw worker.failure;
+            }
+            for (int i = 0; i < outcomeCounts.length; i++) {
+                outcomeCounts[i] += worker.outcomeCounts[i];
+            }
+            latencyCount += worker.latencyCount;
+        }
+        long[] latencies = new long[latencyCount];
+        int offset = 0;
+        for (Shard worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.latencyCount);
+            offset += worker.latencyCount;
+        }
+        Arrays.sort(latencies);
+        return new FleetReport(events, elapsed, shards, outcomeCounts, latencies);
+    }
+
+    private void checkMachines(int[] events, int count) {
+        for (int i = 0; i < count; i++) {
+            int machine = FleetEvent.machineOf(events[i]);
+            if (machine >= fleet.size()) {
+                throw new IllegalArgumentException("Event for machine " + machine + " but the fleet has "
+                        + fleet.size());
+            }
+        }
+    }
+
+    // Hands out the partly filled batches and waits until every shard has
+    // processed all its batches. A shard returns a batch to its free queue
+    // after processing it, so once all batches are back, the fleet holds
+    // every event dispatched so far and no shard is touching it.
+    private void quiesce(Shard[] workers, Batch[] current) throws InterruptedException {
+        for (int i = 0; i < shards; i++) {
+            if (current[i].count > 0) {
+                workers[i].full.put(current[i]);
+            } else {
+                workers[i].free.put(current[i]);
+            }
+        }
+        Batch[] batches = new Batch[BATCHES_PER_SHARD];
+        for (int i = 0; i < shards; i++) {
+            for (int b = 0; b < BATCHES_PER_SHARD; b++) {
+                batches[b] = workers[i].free.take();
+            }
+            current[i] = batches[0];
+            for (int b = 1; b < BATCHES_PER_SHARD; b++) {
+                workers[i].free.put(batches[b]);
+            }
+        }
+    }
+}
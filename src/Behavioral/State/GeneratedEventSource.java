@@ -0,0 +1,39 @@
+package Behavioral.State;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates random events for a fleet: customers insert money, select and
+ * take products on random machines, and every so often a machine is
+ * restocked. The same seed always gives the same stream.
+ */
+public class GeneratedEventSource implements EventSource {
+    private final int machines;
+    private final SplittableRandom random;
+    private long remaining;
+
+    public GeneratedEventSource(int machines, long count, long seed) {
+        if (machines <= 0 || machines > FleetEvent.MAX_MACHINES || count < 0) {
+            throw new IllegalArgumentException("Invalid machine or event count");
+        }
+        this.machines = machines;
+        this.remaining = count;
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public int read(int[] events) {
+        if (remaining == 0) {
+            return -1;
+        }
+        int count = (int) Math.min(events.length, remaining);
+        for (int i = 0; i < count; i++) {
+            int roll = random.nextInt(16);
+            // Mostly purchase steps, one restock in sixteen
+            int code = roll == 15 ? FleetEvent.RESTOCK : roll % 3;
+            events[i] = FleetEvent.encode(random.nextInt(machines), code);
+        }
+        remaining -= count;
+        return count;
+    }
+}
@@ -0,0 +1,115 @@
+package Behavioral.State;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An in-process stand-in for a remote {@link VendingService}, for tests and
+ * benchmarks without a network.
+ *
+ * Each batch is encoded to bytes, delayed by half the configured round trip,
+ * decoded and run by the server, and the outcomes travel back the same way.
+ * Like a real connection, any number of batches can be in flight at once, and
+ * each direction delivers in order: a single thread per direction hands
+ * messages on in the order they were sent, so the server receives batches in
+ * submission order.
+ *
+ * Wire format, big-endian: a request is the command count followed by one
+ * encoded {@link FleetEvent} int per command. A response is the outcome
+ * count followed by one outcome ordinal byte per command.
+ */
+public class LocalTransport implements VendingService, AutoCloseable {
+    private final VendingService server;
+    private final long oneWayMicros;
+    private final ScheduledExecutorService requests = link("local-transport-requests");
+    private final ScheduledExecutorService responses = link("local-transport-responses");
+
+    /**
+     * @param roundTripMicros simulated network round trip, 0 for none
+     */
+    public LocalTransport(VendingService server, long roundTripMicros) {
+        if (roundTripMicros < 0) {
+            throw new IllegalArgumentException("Round trip must not be negative");
+        }
+        this.server = server;
+        this.oneWayMicros = roundTripMicros / 2;
+    }
+
+    // One thread, and every message delayed by the same time, so messages
+    // arrive in the order they were sent
+    private static ScheduledExecutorService link(String name) {
+        return Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public CompletableFuture<BatchResult> submit(CommandBatch batch) {
+        ByteBuffer request = encodeRequest(batch);
+        CompletableFuture<BatchResult> result = new CompletableFuture<>();
+        // The server is called on the delivery thread itself, not in a
+        // dependent stage that could run later on another thread
+        send(requests, result, () -> server.submit(decodeRequest(request)).whenComplete((outcomes, failure) -> {
+            if (failure != null) {
+                result.completeExceptionally(failure);
+                return;
+            }
+            ByteBuffer response = encodeResponse(outcomes);
+            send(responses, result, () -> result.complete(decodeResponse(response)));
+        }));
+        return result;
+    }
+
+    private void send(ScheduledExecutorService link, CompletableFuture<BatchResult> result, Runnable delivery) {
+        Runnable guarded = () -> {
+            try {
+                delivery.run();
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        };
+        if (oneWayMicros == 0) {
+            guarded.run();
+        } else {
+            link.schedule(guarded, oneWayMicros, TimeUnit.MICROSECONDS);
+        }
+    }
+
+    static ByteBuffer encodeRequest(CommandBatch batch) {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES * (batch.size() + 1));
+        buffer.putInt(batch.size());
+        buffer.asIntBuffer().put(batch.events(), 0, batch.size());
+        buffer.position(buffer.capacity());
+        return buffer.flip();
+    }
+
+    static CommandBatch decodeRequest(ByteBuffer request) {
+        int size = request.getInt();
+        int[] events = new int[size];
+        request.asIntBuffer().get(events);
+        return new CommandBatch(events, size);
+    }
+
+    static ByteBuffer encodeResponse(BatchResult result) {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + result.size());
+        buffer.putInt(result.size()).put(result.codes());
+        return buffer.flip();
+    }
+
+    static BatchResult decodeResponse(ByteBuffer response) {
+        byte[] outcomes = new byte[response.getInt()];
+        response.get(outcomes);
+        return new BatchResult(outcomes);
+    }
+
+    @Override
+    public void close() {
+        requests.shutdownNow();
+        responses.shutdownNow();
+    }
+}
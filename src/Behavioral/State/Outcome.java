@@ -0,0 +1,27 @@
+package Behavioral.State;
+
+/**
+ * What happened when the machine handled a command. Returned instead of
+ * printed, so callers decide whether to show it.
+ */
+public enum Outcome {
+    MONEY_ACCEPTED("Money accepted!"),
+    ALREADY_HAVE_MONEY("Already have money inserted"),
+    PRODUCT_SELECTED("Product selected"),
+    OUT_OF_PRODUCTS("Sorry, out of products"),
+    PRODUCT_DISPENSED("Dispensing product..."),
+    PLEASE_WAIT("Please wait, dispensing product"),
+    SELECT_PRODUCT_FIRST("Please select a product first"),
+    INSERT_MONEY_FIRST("Please insert money first"),
+    NOT_ENOUGH_MONEY("Not enough money for this product");
+
+    private final String message;
+
+    Outcome(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
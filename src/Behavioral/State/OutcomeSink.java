@@ -0,0 +1,15 @@
+package Behavioral.State;
+
+/**
+ * Receives the outcome of every command a machine handles.
+ */
+@FunctionalInterface
+public interface OutcomeSink {
+    // Prints each outcome's message, like the machine always used to
+    OutcomeSink CONSOLE = outcome -> System.out.println(outcome.getMessage());
+    // Ignores outcomes, for hot paths that only look at return values
+    OutcomeSink NONE = outcome -> {
+    };
+
+    void accept(Outcome outcome);
+}
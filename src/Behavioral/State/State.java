@@ -1,9 +0,0 @@
-package Behavioral.State;
-
-public interface State {
-    void insertMoney(VendingMachine machine);
-
-    void selectProduct(VendingMachine machine);
-
-    void dispense(VendingMachine machine);
-}
\ No newline at end of file
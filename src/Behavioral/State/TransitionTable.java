@@ -0,0 +1,228 @@
+package Behavioral.State;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Describes a vending machine as data: its states and, for every state and
+ * command, the rules that decide the outcome and the next state.
+ *
+ * States are small ints handed out by the {@link Builder}, so adding a state
+ * means adding rows, not writing a class. A state may have several rules for
+ * one command; the first rule whose guard holds is used. The table is
+ * immutable once built and can be shared by any number of machines.
+ */
+public final class TransitionTable {
+    private static final int COMMANDS = Command.values().length;
+    private static final Guard[] GUARDS = Guard.values();
+    private static final Effect[] EFFECTS = Effect.values();
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    /**
+     * A condition on the machine checked before a rule applies.
+     */
+    public enum Guard {
+        ALWAYS,
+        HAS_PRODUCT,
+        NO_PRODUCT
+    }
+
+    /**
+     * A change to the machine made when a rule applies.
+     */
+    public enum Effect {
+        NONE,
+        CONSUME_PRODUCT
+    }
+
+    private final String[] stateNames;
+    private final int initialState;
+    // Rules of (state, command) are at ruleStart[cell] until ruleStart[cell + 1],
+    // with cell = state * COMMANDS + command
+    private final int[] ruleStart;
+    private final byte[] guards;
+    private final byte[] outcomes;
+    private final byte[] effects;
+    private final int[] targets;
+
+    private TransitionTable(Builder builder) {
+        this.stateNames = builder.stateNames.toArray(new String[0]);
+        this.initialState = builder.initialState;
+        int cells = stateNames.length * COMMANDS;
+        this.ruleStart = new int[cells + 1];
+        int rules = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            ruleStart[cell] = rules;
+            rules += builder.rules.get(cell).size();
+        }
+        ruleStart[cells] = rules;
+        this.guards = new byte[rules];
+        this.outcomes = new byte[rules];
+        this.effects = new byte[rules];
+        this.targets = new int[rules];
+        for (int cell = 0; cell < cells; cell++) {
+            int rule = ruleStart[cell];
+            for (int[] spec : builder.rules.get(cell)) {
+                guards[rule] = (byte) spec[0];
+                outcomes[rule] = (byte) spec[1];
+                effects[rule] = (byte) spec[2];
+                targets[rule] = spec[3];
+                rule++;
+            }
+        }
+    }
+
+    /**
+     * The classic machine: insert money, select a product, take it.
+     */
+    public static TransitionTable standard() {
+        Builder builder = new Builder();
+        int noMoney = builder.state("NO_MONEY");
+        int hasMoney = builder.state("HAS_MONEY");
+        int dispensing = builder.state("DISPENSING");
+        builder.on(noMoney, Command.INSERT_MONEY, Outcome.MONEY_ACCEPTED, hasMoney)
+                .on(noMoney, Command.SELECT_PRODUCT, Outcome.INSERT_MONEY_FIRST, noMoney)
+                .on(noMoney, Command.DISPENSE, Outcome.INSERT_MONEY_FIRST, noMoney)
+                .on(hasMoney, Command.INSERT_MONEY, Outcome.ALREADY_HAVE_MONEY, hasMoney)
+                .on(hasMoney, Command.SELECT_PRODUCT, Guard.HAS_PRODUCT, Outcome.PRODUCT_SELECTED, Effect.NONE,
+                        dispensing)
+                .on(hasMoney, Command.SELECT_PRODUCT, Guard.NO_PRODUCT, Outcome.OUT_OF_PRODUCTS, Effect.NONE,
+                        noMoney)
+                .on(hasMoney, Command.DISPENSE, Outcome.SELECT_PRODUCT_FIRST, hasMoney)
+                .on(dispensing, Command.INSERT_MONEY, Outcome.PLEASE_WAIT, dispensing)
+                .on(dispensing, Command.SELECT_PRODUCT, Outcome.PLEASE_WAIT, dispensing)
+                .on(dispensing, Command.DISPENSE, Guard.ALWAYS, Outcome.PRODUCT_DISPENSED, Effect.CONSUME_PRODUCT,
+                        noMoney);
+        return builder.initialState(noMoney).build();
+    }
+
+    public int getInitialState() {
+        return initialState;
+    }
+
+    public int getStateCount() {
+        return stateNames.length;
+    }
+
+    public String getStateName(int state) {
+        return stateNames[state];
+    }
+
+    public int stateOf(String name) {
+        for (int state = 0; state < stateNames.length; state++) {
+            if (stateNames[state].equals(name)) {
+                return state;
+            }
+        }
+        throw new IllegalArgumentException("Unknown state: " + name);
+    }
+
+    /**
+     * Index of the rule that applies to {@code command} in {@code state}, or
+     * -1 if no guard holds.
+     */
+    int findRule(int state, Command command, boolean hasProduct) {
+        return findRule(state, command.ordinal(), hasProduct);
+    }
+
+    int findRule(int state, int command, boolean hasProduct) {
+        int cell = state * COMMANDS + command;
+        for (int rule = ruleStart[cell]; rule < ruleStart[cell + 1]; rule++) {
+            if (holds(guards[rule], hasProduct)) {
+                return rule;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean holds(byte guard, boolean hasProduct) {
+        switch (GUARDS[guard]) {
+            case HAS_PRODUCT:
+                return hasProduct;
+            case NO_PRODUCT:
+                return !hasProduct;
+            default:
+                return true;
+        }
+    }
+
+    Outcome outcome(int rule) {
+        return OUTCOMES[outcomes[rule]];
+    }
+
+    // Outcome ordinal, for callers that count outcomes in arrays
+    int outcomeCode(int rule) {
+        return outcomes[rule];
+    }
+
+    Effect effect(int rule) {
+        return EFFECTS[effects[rule]];
+    }
+
+    int target(int rule) {
+        return targets[rule];
+    }
+
+    public static class Builder {
+        private final List<String> stateNames = new ArrayList<>();
+        // Per cell, the rules as {guard, outcome, effect, target}
+        private final List<List<int[]>> rules = new ArrayList<>();
+        private int initialState = -1;
+
+        /**
+         * Adds a state and returns its number.
+         */
+        public int state(String name) {
+            if (stateNames.contains(name)) {
+                throw new IllegalArgumentException("Duplicate state: " + name);
+            }
+            stateNames.add(name);
+            for (int i = 0; i < COMMANDS; i++) {
+                rules.add(new ArrayList<>());
+            }
+            return stateNames.size() - 1;
+        }
+
+        public Builder initialState(int state) {
+            checkState(state);
+            this.initialState = state;
+            return this;
+        }
+
+        public Builder on(int from, Command command, Outcome outcome, int to) {
+            return on(from, command, Guard.ALWAYS, outcome, Effect.NONE, to);
+        }
+
+        public Builder on(int from, Command command, Guard guard, Outcome outcome, Effect effect, int to) {
+            checkState(from);
+            checkState(to);
+            rules.get(from * COMMANDS + command.ordinal())
+                    .add(new int[] { guard.ordinal(), outcome.ordinal(), effect.ordinal(), to });
+            return this;
+        }
+
+        /**
+         * Builds the table. Every state needs at least one rule per command.
+         */
+        public TransitionTable build() {
+            if (initialState < 0) {
+                throw new IllegalStateException("No initial state");
+            }
+            for (int cell = 0; cell < rules.size(); cell++) {
+                if (rules.get(cell).isEmpty()) {
+                    throw new IllegalStateException("No rule for " + Command.values()[cell % COMMANDS]
+                            + " in state " + stateNames.get(cell / COMMANDS));
+                }
+            }
+            return new TransitionTable(this);
+        }
+
+        private void checkState(int state) {
+            if (state < 0 || state >= stateNames.size()) {
+                throw new IllegalArgumentException("Unknown state: " + state
+                        + ", known states: " + Arrays.toString(stateNames.toArray()));
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package Behavioral.State;
+
+import java.util.Arrays;
+
+/**
+ * Millions of vending machines stored in one byte each: the state number from
+ * a {@link TransitionTable} in the low seven bits and whether the machine has
+ * a product in the top bit.
+ *
+ * A fleet is not thread-safe, but threads may work on disjoint ranges of
+ * machines at the same time, as {@link FleetSimulator} does.
+ */
+public class VendingFleet {
+    private static final int HAS_PRODUCT = 0x80;
+    private static final int STATE_MASK = 0x7F;
+    private static final Command[] COMMANDS = Command.values();
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    private final TransitionTable table;
+    private final byte[] machines;
+
+    /**
+     * A fleet of {@code size} stocked machines in the table's initial state.
+     */
+    public VendingFleet(int size, TransitionTable table) {
+        if (size <= 0 || size > FleetEvent.MAX_MACHINES) {
+            throw new IllegalArgumentException("Fleet size must be between 1 and " + FleetEvent.MAX_MACHINES);
+        }
+        if (table.getStateCount() > STATE_MASK + 1) {
+            throw new IllegalArgumentException("A fleet supports at most " + (STATE_MASK + 1) + " states");
+        }
+        this.table = table;
+        this.machines = new byte[size];
+        Arrays.fill(machines, (byte) (HAS_PRODUCT | table.getInitialState()));
+    }
+
+    public int size() {
+        return machines.length;
+    }
+
+    public Outcome handle(int machine, Command command) {
+        return OUTCOMES[apply(machine, command.ordinal())];
+    }
+
+    public void restock(int machine) {
+        machines[machine] |= HAS_PRODUCT;
+    }
+
+    public int getState(int machine) {
+        return machines[machine] & STATE_MASK;
+    }
+
+    public String getStateName(int machine) {
+        return table.getStateName(getState(machine));
+    }
+
+    public boolean hasProduct(int machine) {
+        return (machines[machine] & HAS_PRODUCT) != 0;
+    }
+
+    // The machines themselves, for snapshots
+    byte[] rawMachines() {
+        return machines;
+    }
+
+    public TransitionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Applies {@code count} encoded events and adds one to
+     * {@code outcomeCounts[outcome.ordinal()]} for each command handled.
+     * Restocks are counted in the last element.
+     */
+    void process(int[] events, int count, long[] outcomeCounts) {
+        for (int i = 0; i < count; i++) {
+            int event = events[i];
+            int machine = FleetEvent.machineOf(event);
+            int code = FleetEvent.codeOf(event);
+            if (code == FleetEvent.RESTOCK) {
+                machines[machine] |= HAS_PRODUCT;
+                outcomeCounts[OUTCOMES.length]++;
+            } else {
+                outcomeCounts[apply(machine, code)]++;
+            }
+        }
+    }
+
+    // Returns the outcome ordinal
+    private int apply(int machine, int command) {
+        int value = machines[machine];
+        boolean hasProduct = (value & HAS_PRODUCT) != 0;
+        int rule = table.findRule(value & STATE_MASK, command, hasProduct);
+        if (rule < 0) {
+            throw new IllegalStateException("No rule for " + COMMANDS[command] + " in state "
+                    + table.getStateName(value & STATE_MASK) + " on machine " + machine);
+        }
+        if (table.effect(rule) == TransitionTable.Effect.CONSUME_PRODUCT) {
+            hasProduct = false;
+        }
+        machines[machine] = (byte) ((hasProduct ? HAS_PRODUCT : 0) | table.target(rule));
+        return table.outcomeCode(rule);
+    }
+}
@@ -1,28 +1,64 @@
 package Behavioral.State;
 
+/**
+ * A vending machine driven by a {@link TransitionTable}.
+ *
+ * The current state is just a number into the table, so handling a command
+ * allocates nothing: the machine looks up the rule, applies its effect,
+ * moves to the target state and reports the outcome to its sink.
+ */
 public class VendingMachine {
-    private State currentState;
+    private final TransitionTable table;
+    private final OutcomeSink sink;
+    private int state;
     private boolean hasProduct;
 
+    /**
+     * The standard machine, printing every outcome to the console.
+     */
     public VendingMachine() {
-        currentState = new NoMoneyState();
-        hasProduct = true;
+        this(TransitionTable.standard(), OutcomeSink.CONSOLE);
     }
 
-    public void insertMoney() {
-        currentState.insertMoney(this);
+    public VendingMachine(TransitionTable table, OutcomeSink sink) {
+        this.table = table;
+        this.sink = sink;
+        this.state = table.getInitialState();
+        this.hasProduct = true;
     }
 
-    public void selectProduct() {
-        currentState.selectProduct(this);
+    public Outcome insertMoney() {
+        return handle(Command.INSERT_MONEY);
     }
 
-    public void dispense() {
-        currentState.dispense(this);
+    public Outcome selectProduct() {
+        return handle(Command.SELECT_PRODUCT);
     }
 
-    public void setState(State state) {
-        this.currentState = state;
+    public Outcome dispense() {
+        return handle(Command.DISPENSE);
+    }
+
+    public Outcome handle(Command command) {
+        int rule = table.findRule(state, command, hasProduct);
+        if (rule < 0) {
+            throw new IllegalStateException("No rule for " + command + " in state " + getStateName());
+        }
+        if (table.effect(rule) == TransitionTable.Effect.CONSUME_PRODUCT) {
+            hasProduct = false;
+        }
+        state = table.target(rule);
+        Outcome outcome = table.outcome(rule);
+        sink.accept(outcome);
+        return outcome;
+    }
+
+    public int getState() {
+        return state;
+    }
+
+    public String getStateName() {
+        return table.getStateName(state);
     }
 
     public boolean hasProduct() {
@@ -32,4 +68,4 @@ public class VendingMachine {
     public void setHasProduct(boolean hasProduct) {
         this.hasProduct = hasProduct;
     }
-}
\ No newline at end of file
+}
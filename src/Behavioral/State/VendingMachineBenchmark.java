@@ -0,0 +1,32 @@
+package Behavioral.State;
+
+/**
+ * Drives a machine through full purchase cycles with outcomes discarded and
+ * reports transitions per second. Pass the number of cycles per round as the
+ * first argument.
+ */
+public class VendingMachineBenchmark {
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int cycles = args.length > 0 ? Integer.parseInt(args[0]) : 25_000_000;
+        VendingMachine machine = new VendingMachine(TransitionTable.standard(), OutcomeSink.NONE);
+        long dispensed = 0;
+        for (int round = 1; round <= ROUNDS; round++) {
+            long begin = System.nanoTime();
+            for (int i = 0; i < cycles; i++) {
+                machine.setHasProduct(true);
+                machine.insertMoney();
+                machine.selectProduct();
+                if (machine.dispense() == Outcome.PRODUCT_DISPENSED) {
+                    dispensed++;
+                }
+            }
+            long nanos = System.nanoTime() - begin;
+            long transitions = 3L * cycles;
+            System.out.printf("Round %d: %,d transitions in %d ms (%.1f M/s)%n",
+                    round, transitions, nanos / 1_000_000, transitions * 1e3 / nanos);
+        }
+        System.out.println("Products dispensed: " + dispensed);
+    }
+}
@@ -0,0 +1,12 @@
+package Behavioral.State;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs batches of commands against a fleet of machines. Several batches may
+ * be in flight at once; commands for the same machine run in the order their
+ * batches were submitted.
+ */
+public interface VendingService {
+    CompletableFuture<BatchResult> submit(CommandBatch batch);
+}
@@ -1,5 +1,7 @@
 package Creational.Builder;
 
+import java.nio.ByteBuffer;
+
 public class BuilderMain {
     public static void main(String[] args) {
         // Creating a custom pizza using the builder pattern
@@ -28,5 +30,28 @@ public class BuilderMain {
 
         System.out.println("\nVegetarian Pizza Order Details:");
         System.out.println(vegetarianPizza);
+
+        // Reusing one builder for several orders
+        PizzaBuilder builder = new PizzaBuilder();
+        Pizza margherita = builder.setSize("small").setCrustType("thin").setSauce("tomato")
+                .addTopping("cheese").build();
+        Pizza bbqChicken = builder.reset().setSize("large").setCrustType("stuffed").setSauce("bbq")
+                .addTopping("chicken").addTopping("onions").build();
+
+        System.out.println("\nOrders built with one reused builder:");
+        System.out.println(margherita);
+        System.out.println(bbqChicken);
+
+        // Equal pizzas can share one canonical instance
+        Pizza anotherMargherita = builder.reset().setSize("small").setCrustType("thin").setSauce("tomato")
+                .addTopping("cheese").build();
+        System.out.println("\nSame order twice is equal? " + margherita.equals(anotherMargherita));
+        System.out.println("Interned to one instance? " + (margherita.intern() == anotherMargherita.intern()));
+
+        // Compact binary form for sending orders between services
+        ByteBuffer wire = ByteBuffer.allocate(PizzaCodec.encodedSize(bbqChicken));
+        PizzaCodec.encode(bbqChicken, wire);
+        wire.flip();
+        System.out.println("Encoded in " + wire.remaining() + " bytes, decoded: " + PizzaCodec.decode(wire));
     }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package Creational.Builder;
+
+public enum CrustType {
+    THIN("thin"),
+    THICK("thick"),
+    STUFFED("stuffed");
+
+    private final String name;
+
+    CrustType(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Looks up a crust type by name, ignoring case.
+     */
+    public static CrustType fromName(String name) {
+        for (CrustType crustType : values()) {
+            if (crustType.name.equalsIgnoreCase(name)) {
+                return crustType;
+            }
+        }
+        throw new IllegalArgumentException("Unknown crust type: " + name);
+    }
+}
@@ -0,0 +1,70 @@
+package Creational.Builder;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk order ingestion run.
+ */
+public final class IngestionReport {
+    private final long accepted;
+    private final long rejected;
+    private final long sinkFailures;
+    private final RuntimeException firstSinkFailure;
+    private final long elapsedNanos;
+    private final List<String> rejectionSamples;
+
+    IngestionReport(long accepted, long rejected, long sinkFailures, RuntimeException firstSinkFailure,
+            long elapsedNanos, List<String> rejectionSamples) {
+        this.accepted = accepted;
+        this.rejected = rejected;
+        this.sinkFailures = sinkFailures;
+        this.firstSinkFailure = firstSinkFailure;
+        this.elapsedNanos = elapsedNanos;
+        this.rejectionSamples = Collections.unmodifiableList(rejectionSamples);
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Orders that were parsed but that the sink threw on. They are neither
+     * accepted nor rejected.
+     */
+    public long getSinkFailures() {
+        return sinkFailures;
+    }
+
+    /**
+     * The first exception thrown by the sink, or null if it never threw.
+     */
+    public RuntimeException getFirstSinkFailure() {
+        return firstSinkFailure;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getOrdersPerSecond() {
+        return elapsedNanos == 0 ? 0 : accepted * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * The first few rejected lines, with their line number and the reason.
+     */
+    public List<String> getRejectionSamples() {
+        return rejectionSamples;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("IngestionReport [accepted=%d, rejected=%d, sinkFailures=%d, elapsed=%d ms, "
+                + "%.0f orders/s]", accepted, rejected, sinkFailures, elapsedNanos / 1_000_000, getOrdersPerSecond());
+    }
+}
@@ -0,0 +1,230 @@
+package Creational.Builder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns sauce and topping names as small ids, so a pizza stores a few
+ * shorts instead of strings. Ids are only meaningful inside this process; the
+ * {@link PizzaCodec} ships names, using the UTF-8 forms cached here.
+ *
+ * The shared vocabulary stops growing at {@link #MAX_INTERNED} names, so
+ * unusual input cannot fill it. Names beyond that, and names decoded from the
+ * wire that are not known yet, are kept by the pizza itself (see
+ * {@link Local}) and get ids below {@link #NONE}.
+ */
+final class Ingredients {
+    static final short NONE = -1;
+    static final int MAX_NAME_BYTES = 255;
+    static final int MAX_INTERNED = 4096;
+
+    private static final ConcurrentHashMap<String, Short> IDS = new ConcurrentHashMap<>();
+    private static volatile Vocabulary vocabulary = new Vocabulary(new String[0], new byte[0][], new short[0]);
+
+    // Immutable; replaced as a whole when a name is added, which is rare
+    private static final class Vocabulary {
+        final String[] names;
+        final byte[][] encoded;
+        // Open-addressing table from the hash of a UTF-8 name to its id
+        final short[] byEncodedHash;
+
+        Vocabulary(String[] names, byte[][] encoded, short[] byEncodedHash) {
+            this.names = names;
+            this.encoded = encoded;
+            this.byEncodedHash = byEncodedHash;
+        }
+
+        Vocabulary with(String name, byte[] utf8) {
+            int count = names.length + 1;
+            String[] newNames = Arrays.copyOf(names, count);
+            byte[][] newEncoded = Arrays.copyOf(encoded, count);
+            newNames[count - 1] = name;
+            newEncoded[count - 1] = utf8;
+            // At most half full, so probes stay short
+            short[] table = new short[Integer.highestOneBit(count * 4 - 1)];
+            Arrays.fill(table, NONE);
+            for (short id = 0; id < count; id++) {
+                byte[] bytes = newEncoded[id];
+                int slot = hash(ByteBuffer.wrap(bytes), 0, bytes.length) & (table.length - 1);
+                while (table[slot] != NONE) {
+                    slot = (slot + 1) & (table.length - 1);
+                }
+                table[slot] = id;
+            }
+            return new Vocabulary(newNames, newEncoded, table);
+        }
+    }
+
+    private Ingredients() {
+    }
+
+    /**
+     * Returns the id of the name, interning it if needed. Returns
+     * {@link #NONE} once the vocabulary is full and the name is not in it.
+     *
+     * @throws IllegalArgumentException if the name is empty or longer than
+     *                                  {@link #MAX_NAME_BYTES} in UTF-8
+     */
+    static short idOf(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Ingredient name must not be empty");
+        }
+        Short id = IDS.get(name);
+        if (id != null) {
+            return id;
+        }
+        if (vocabulary.names.length == MAX_INTERNED) {
+            // Full: still reject names that could not be encoded
+            checkedBytes(name);
+            return NONE;
+        }
+        return register(name);
+    }
+
+    /**
+     * Looks up the ingredient whose UTF-8 name is stored in {@code buffer} at
+     * the given absolute position, without allocating. Returns {@link #NONE}
+     * for a name that is not interned; it is never added.
+     */
+    static short find(ByteBuffer buffer, int position, int length) {
+        Vocabulary current = vocabulary;
+        short[] table = current.byEncodedHash;
+        if (table.length > 0) {
+            int slot = hash(buffer, position, length) & (table.length - 1);
+            short id;
+            while ((id = table[slot]) != NONE) {
+                if (matches(current.encoded[id], buffer, position, length)) {
+                    return id;
+                }
+                slot = (slot + 1) & (table.length - 1);
+            }
+        }
+        return NONE;
+    }
+
+    private static synchronized short register(String name) {
+        Short id = IDS.get(name);
+        if (id != null) {
+            return id;
+        }
+        byte[] utf8 = checkedBytes(name);
+        Vocabulary current = vocabulary;
+        if (current.names.length == MAX_INTERNED) {
+            return NONE;
+        }
+        short newId = (short) current.names.length;
+        // Publish the name before the id that refers to it
+        vocabulary = current.with(name, utf8);
+        IDS.put(name, newId);
+        return newId;
+    }
+
+    /**
+     * Checks a name the way {@link #idOf(String)} does, without interning it.
+     *
+     * @throws IllegalArgumentException if the name is empty or longer than
+     *                                  {@link #MAX_NAME_BYTES} in UTF-8
+     */
+    static void checkName(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Ingredient name must not be empty");
+        }
+        // A char takes at most 3 bytes in UTF-8, so short names always fit
+        if (name.length() > MAX_NAME_BYTES / 3) {
+            checkedBytes(name);
+        }
+    }
+
+    private static byte[] checkedBytes(String name) {
+        byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Ingredient name longer than " + MAX_NAME_BYTES + " bytes: " + name);
+        }
+        return utf8;
+    }
+
+    static int internedCount() {
+        return vocabulary.names.length;
+    }
+
+    static String nameOf(short id) {
+        return id == NONE ? null : vocabulary.names[id];
+    }
+
+    /**
+     * The UTF-8 form of the name, cached so encoding never allocates. Must not
+     * be modified.
+     */
+    static byte[] encodedNameOf(short id) {
+        return vocabulary.encoded[id];
+    }
+
+    /**
+     * Names of one pizza that are not in the shared vocabulary. The n-th name
+     * added gets id {@code -2 - n}, so ids below {@link #NONE} index into the
+     * pizza's own names. Reusable after {@link #clear()}.
+     */
+    static final class Local {
+        private static final int MAX_NAMES = Short.MAX_VALUE - 1;
+
+        private String[] names;
+        private int count;
+
+        short add(String name) {
+            if (count == MAX_NAMES) {
+                throw new IllegalStateException("Too many ingredients outside the vocabulary");
+            }
+            if (names == null) {
+                names = new String[4];
+            } else if (count == names.length) {
+                names = Arrays.copyOf(names, count * 2);
+            }
+            names[count] = name;
+            return idOfLocal(count++);
+        }
+
+        void clear() {
+            if (names != null) {
+                Arrays.fill(names, 0, count, null);
+            }
+            count = 0;
+        }
+
+        /**
+         * The names added so far, or null if there are none.
+         */
+        String[] toArray() {
+            return count == 0 ? null : Arrays.copyOf(names, count);
+        }
+    }
+
+    static short idOfLocal(int index) {
+        return (short) (-2 - index);
+    }
+
+    static int localIndexOf(short id) {
+        return -2 - id;
+    }
+
+    private static int hash(ByteBuffer buffer, int position, int length) {
+        int h = 0;
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + buffer.get(position + i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean matches(byte[] name, ByteBuffer buffer, int position, int length) {
+        if (name.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (name[i] != buffer.get(position + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
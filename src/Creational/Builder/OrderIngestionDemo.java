@@ -0,0 +1,58 @@
+package Creational.Builder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Demonstrates bulk ingestion: a large order file, with a few malformed
+ * lines, is streamed through PizzaBuilder in parallel.
+ */
+public class OrderIngestionDemo {
+    private static final String[] SIZES = { "small", "medium", "large" };
+    private static final String[] CRUSTS = { "thin", "thick", "stuffed" };
+    private static final String[] SAUCES = { "tomato", "pesto", "bbq" };
+    private static final String[] TOPPINGS = { "cheese", "pepperoni", "mushrooms", "olives", "onions" };
+
+    public static void main(String[] args) throws IOException {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path file = Files.createTempFile("orders", ".csv");
+        try {
+            writeOrders(file, orders);
+            System.out.println("Wrote " + orders + " orders (" + Files.size(file) / 1024 + " KB)");
+
+            LongAdder large = new LongAdder();
+            IngestionReport report = new PizzaOrderIngestor().ingest(file, pizza -> {
+                if (pizza.getSize() == Size.LARGE) {
+                    large.increment();
+                }
+            });
+
+            System.out.println(report);
+            System.out.println("Large pizzas: " + large.sum());
+            System.out.println("Rejected lines:");
+            for (String sample : report.getRejectionSamples()) {
+                System.out.println("  " + sample);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void writeOrders(Path file, int orders) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("size,crustType,sauce,toppings\n");
+            for (int i = 0; i < orders; i++) {
+                if (i % 100_000 == 99_999) {
+                    out.write("gigantic,thin,tomato,cheese\n");
+                    continue;
+                }
+                out.write(SIZES[i % 3] + "," + CRUSTS[i / 3 % 3] + "," + SAUCES[i / 9 % 3] + ","
+                        + TOPPINGS[i % 5] + "|" + TOPPINGS[i / 5 % 5] + "\n");
+            }
+        }
+    }
+}
@@ -1,41 +1,147 @@
 package Creational.Builder;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
-public class Pizza {
-    private String size;
-    private String crustType;
-    private List<String> toppings;
-    private String sauce;
+/**
+ * An immutable pizza. Size and crust are enums, and the sauce and toppings
+ * are stored as interned ingredient ids, so a pizza is a handful of fields
+ * and one small array. The rare names outside the shared vocabulary are
+ * kept by the pizza itself, see {@link Ingredients.Local}.
+ */
+public final class Pizza {
+    private final Size size;
+    private final CrustType crustType;
+    private final short sauce;
+    private final short[] toppings;
+    // Names of ids below Ingredients.NONE, or null when every name is interned
+    private final String[] localNames;
+    private final int hash;
+    // Built on first use; racing threads build equal strings, which is harmless
+    private String text;
 
-    Pizza() {
-        this.toppings = new ArrayList<>();
+    // Takes ownership of the toppings and local names arrays
+    Pizza(Size size, CrustType crustType, short sauce, short[] toppings, String[] localNames) {
+        this.size = size;
+        this.crustType = crustType;
+        this.sauce = sauce;
+        this.toppings = toppings;
+        this.localNames = localNames;
+        // Hashed by name, so a name hashes the same whether it is interned or local
+        int h = 31 * (31 * (size == null ? 0 : size.ordinal() + 1)
+                + (crustType == null ? 0 : crustType.ordinal() + 1)) + Objects.hashCode(nameOf(sauce));
+        for (short topping : toppings) {
+            h = 31 * h + nameOf(topping).hashCode();
+        }
+        this.hash = h;
     }
 
-    void setSize(String size) {
-        this.size = size;
+    /**
+     * Returns the canonical instance of this pizza: equal pizzas intern to the
+     * same object, so storing interned pizzas keeps one copy per combination.
+     * Pizzas with ingredients outside the shared vocabulary are returned as
+     * they are.
+     */
+    public Pizza intern() {
+        return localNames == null ? PizzaInterner.intern(this) : this;
     }
 
-    void setCrustType(String crustType) {
-        this.crustType = crustType;
+    String nameOf(short id) {
+        return id < Ingredients.NONE ? localNames[Ingredients.localIndexOf(id)] : Ingredients.nameOf(id);
     }
 
-    void addTopping(String topping) {
-        this.toppings.add(topping);
+    short sauceId() {
+        return sauce;
     }
 
-    void setSauce(String sauce) {
-        this.sauce = sauce;
+    short toppingId(int index) {
+        return toppings[index];
+    }
+
+    public Size getSize() {
+        return size;
+    }
+
+    public CrustType getCrustType() {
+        return crustType;
+    }
+
+    public String getSauce() {
+        return nameOf(sauce);
+    }
+
+    public int getToppingCount() {
+        return toppings.length;
+    }
+
+    public String getTopping(int index) {
+        return nameOf(toppings[index]);
+    }
+
+    /**
+     * The toppings in the order they were added, as a read-only view.
+     */
+    public List<String> getToppings() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return getTopping(index);
+            }
+
+            @Override
+            public int size() {
+                return toppings.length;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Pizza)) {
+            return false;
+        }
+        Pizza pizza = (Pizza) other;
+        if (hash != pizza.hash || size != pizza.size || crustType != pizza.crustType
+                || toppings.length != pizza.toppings.length) {
+            return false;
+        }
+        if (localNames == null && pizza.localNames == null) {
+            return sauce == pizza.sauce && Arrays.equals(toppings, pizza.toppings);
+        }
+        // A name may be local in one pizza and interned in the other
+        if (!Objects.equals(getSauce(), pizza.getSauce())) {
+            return false;
+        }
+        for (int i = 0; i < toppings.length; i++) {
+            if (!getTopping(i).equals(pizza.getTopping(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
     }
 
     @Override
     public String toString() {
-        return "Pizza{" +
-                "size='" + size + '\'' +
-                ", crustType='" + crustType + '\'' +
-                ", toppings=" + toppings +
-                ", sauce='" + sauce + '\'' +
-                '}';
-    }
-}
\ No newline at end of file
+        String result = text;
+        if (result == null) {
+            result = "Pizza{" +
+                    "size='" + (size == null ? null : size.getName()) + '\'' +
+                    ", crustType='" + (crustType == null ? null : crustType.getName()) + '\'' +
+                    ", toppings=" + getToppings() +
+                    ", sauce='" + getSauce() + '\'' +
+                    '}';
+            text = result;
+        }
+        return result;
+    }
+}
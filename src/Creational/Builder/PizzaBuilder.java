@@ -1,33 +1,77 @@
 package Creational.Builder;
 
+import java.util.Arrays;
+
+/**
+ * Builds immutable {@link Pizza} objects. A builder can be reused: build()
+ * copies the current state, and reset() clears it for the next order without
+ * allocating, so one builder per thread can build orders back to back.
+ */
 public class PizzaBuilder {
-    private Pizza pizza;
+    private static final short[] NO_TOPPINGS = new short[0];
 
-    public PizzaBuilder() {
-        pizza = new Pizza();
-    }
+    private Size size;
+    private CrustType crustType;
+    private short sauce = Ingredients.NONE;
+    private short[] toppings = new short[8];
+    private int toppingCount;
+    // Names that did not fit in the shared vocabulary
+    private final Ingredients.Local localNames = new Ingredients.Local();
 
     public PizzaBuilder setSize(String size) {
-        pizza.setSize(size);
+        return setSize(Size.fromName(size));
+    }
+
+    public PizzaBuilder setSize(Size size) {
+        this.size = size;
         return this;
     }
 
     public PizzaBuilder setCrustType(String crustType) {
-        pizza.setCrustType(crustType);
+        return setCrustType(CrustType.fromName(crustType));
+    }
+
+    public PizzaBuilder setCrustType(CrustType crustType) {
+        this.crustType = crustType;
         return this;
     }
 
     public PizzaBuilder addTopping(String topping) {
-        pizza.addTopping(topping);
+        if (toppingCount == toppings.length) {
+            toppings = Arrays.copyOf(toppings, toppings.length * 2);
+        }
+        toppings[toppingCount++] = ingredientId(topping);
         return this;
     }
 
     public PizzaBuilder setSauce(String sauce) {
-        pizza.setSauce(sauce);
+        this.sauce = ingredientId(sauce);
+        return this;
+    }
+
+    private short ingredientId(String name) {
+        short id = Ingredients.idOf(name);
+        return id != Ingredients.NONE ? id : localNames.add(name);
+    }
+
+    /**
+     * Clears everything set so far. Keeps the topping buffer for reuse.
+     */
+    public PizzaBuilder reset() {
+        size = null;
+        crustType = null;
+        sauce = Ingredients.NONE;
+        toppingCount = 0;
+        localNames.clear();
         return this;
     }
 
+    /**
+     * Returns a new immutable pizza. Later changes to the builder do not
+     * affect pizzas that were already built.
+     */
     public Pizza build() {
-        return pizza;
+        short[] copy = toppingCount == 0 ? NO_TOPPINGS : Arrays.copyOf(toppings, toppingCount);
+        return new Pizza(size, crustType, sauce, copy, localNames.toArray());
     }
-}
\ No newline at end of file
+}
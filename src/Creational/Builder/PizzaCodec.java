@@ -0,0 +1,132 @@
+package Creational.Builder;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary wire format for pizzas.
+ *
+ * Layout: format version, size and crust ordinals (-1 when unset), the sauce
+ * name, the topping count and the topping names. Names are written as a
+ * one-byte length followed by UTF-8 bytes, with length 0 meaning "no sauce".
+ * A typical order takes 20 to 40 bytes.
+ *
+ * The encoder writes straight into the caller's buffer from cached name
+ * bytes, and the decoder resolves known names straight from the buffer
+ * without copying them. Names the process does not know yet are decoded as
+ * names local to the pizza and never added to the shared vocabulary, so a
+ * peer sending random names cannot fill it.
+ */
+public final class PizzaCodec {
+    public static final byte FORMAT_VERSION = 1;
+    private static final int MAX_TOPPINGS = 255;
+
+    private PizzaCodec() {
+    }
+
+    public static int encodedSize(Pizza pizza) {
+        int size = 4 + nameSize(pizza, pizza.sauceId());
+        for (int i = 0; i < pizza.getToppingCount(); i++) {
+            size += nameSize(pizza, pizza.toppingId(i));
+        }
+        return size;
+    }
+
+    /**
+     * Writes the pizza at the buffer's position and advances it.
+     *
+     * @throws java.nio.BufferOverflowException if the buffer has less than
+     *                                          {@link #encodedSize} bytes left
+     */
+    public static void encode(Pizza pizza, ByteBuffer out) {
+        if (pizza.getToppingCount() > MAX_TOPPINGS) {
+            throw new IllegalArgumentException("Cannot encode more than " + MAX_TOPPINGS + " toppings");
+        }
+        out.put(FORMAT_VERSION);
+        out.put(pizza.getSize() == null ? -1 : (byte) pizza.getSize().ordinal());
+        out.put(pizza.getCrustType() == null ? -1 : (byte) pizza.getCrustType().ordinal());
+        putName(out, pizza, pizza.sauceId());
+        out.put((byte) pizza.getToppingCount());
+        for (int i = 0; i < pizza.getToppingCount(); i++) {
+            putName(out, pizza, pizza.toppingId(i));
+        }
+    }
+
+    /**
+     * Reads a pizza at the buffer's position and advances past it. Returns the
+     * canonical instance, see {@link Pizza#intern()}.
+     *
+     * @throws IllegalArgumentException if the bytes are not a valid pizza
+     */
+    public static Pizza decode(ByteBuffer in) {
+        try {
+            byte version = in.get();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported pizza format version: " + version);
+            }
+            Size size = ordinal(Size.values(), in.get());
+            CrustType crustType = ordinal(CrustType.values(), in.get());
+            Ingredients.Local localNames = new Ingredients.Local();
+            short sauce = getName(in, localNames);
+            int toppingCount = in.get() & 0xFF;
+            short[] toppings = new short[toppingCount];
+            for (int i = 0; i < toppingCount; i++) {
+                toppings[i] = getName(in, localNames);
+                if (toppings[i] == Ingredients.NONE) {
+                    throw new IllegalArgumentException("Empty topping name");
+                }
+            }
+            return new Pizza(size, crustType, sauce, toppings, localNames.toArray()).intern();
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated pizza", e);
+        }
+    }
+
+    private static int nameSize(Pizza pizza, short id) {
+        return id == Ingredients.NONE ? 1 : 1 + encodedName(pizza, id).length;
+    }
+
+    private static void putName(ByteBuffer out, Pizza pizza, short id) {
+        if (id == Ingredients.NONE) {
+            out.put((byte) 0);
+            return;
+        }
+        byte[] name = encodedName(pizza, id);
+        out.put((byte) name.length);
+        out.put(name);
+    }
+
+    // Cached for interned names; local names are rare and encoded each time
+    private static byte[] encodedName(Pizza pizza, short id) {
+        return id >= 0 ? Ingredients.encodedNameOf(id) : pizza.nameOf(id).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static short getName(ByteBuffer in, Ingredients.Local localNames) {
+        int length = in.get() & 0xFF;
+        if (length == 0) {
+            return Ingredients.NONE;
+        }
+        if (in.remaining() < length) {
+            throw new IllegalArgumentException("Truncated ingredient name");
+        }
+        short id = Ingredients.find(in, in.position(), length);
+        if (id == Ingredients.NONE) {
+            byte[] bytes = new byte[length];
+            in.get(in.position(), bytes);
+            id = localNames.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        in.position(in.position() + length);
+        return id;
+    }
+
+    private static <E extends Enum<E>> E ordinal(E[] values, byte ordinal) {
+        if (ordinal == -1) {
+            return null;
+        }
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw new IllegalArgumentException("Invalid ordinal: " + ordinal);
+        }
+        return values[ordinal];
+    }
+}
@@ -0,0 +1,33 @@
+package Creational.Builder;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical instances of equal pizzas, see {@link Pizza#intern()}. Most orders
+ * are one of a few dozen combinations, so the table stays small; it stops
+ * growing at {@link #MAX_ENTRIES} to protect against unusual workloads.
+ */
+final class PizzaInterner {
+    static final int MAX_ENTRIES = 4096;
+
+    private static final ConcurrentHashMap<Pizza, Pizza> CANONICAL = new ConcurrentHashMap<>();
+
+    private PizzaInterner() {
+    }
+
+    static Pizza intern(Pizza pizza) {
+        Pizza canonical = CANONICAL.get(pizza);
+        if (canonical != null) {
+            return canonical;
+        }
+        if (CANONICAL.size() >= MAX_ENTRIES) {
+            return pizza;
+        }
+        canonical = CANONICAL.putIfAbsent(pizza, pizza);
+        return canonical != null ? canonical : pizza;
+    }
+
+    static int size() {
+        return CANONICAL.size();
+    }
+}
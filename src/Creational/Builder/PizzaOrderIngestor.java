@@ -0,0 +1,241 @@
+package Creational.Builder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Streams a file of pizza orders through {@link PizzaBuilder}.
+ *
+ * Lines are read in batches and parsed and built on a pool of worker threads,
+ * each with its own reused builder. Only a bounded number of batches is in
+ * flight at a time, so memory stays constant however large the file is.
+ * Malformed lines are counted and skipped. Orders the sink throws on are
+ * counted separately, so a failing sink is not mistaken for bad input.
+ *
+ * One order per line, as CSV: {@code size,crustType,sauce,toppings}, where
+ * toppings are separated by '|' and may be empty. Blank lines and lines
+ * starting with '#' are ignored, and so is a first line starting with
+ * "size,".
+ */
+public class PizzaOrderIngestor {
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+    private static final int MAX_REJECTION_SAMPLES = 10;
+
+    private final int batchSize;
+    private final int parallelism;
+    private final ThreadLocal<PizzaBuilder> builders = ThreadLocal.withInitial(PizzaBuilder::new);
+
+    public PizzaOrderIngestor() {
+        this(DEFAULT_BATCH_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    public PizzaOrderIngestor(int batchSize, int parallelism) {
+        if (batchSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("Batch size and parallelism must be positive");
+        }
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+    }
+
+    public IngestionReport ingest(Path file, Consumer<Pizza> sink) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return ingest(reader, sink);
+        }
+    }
+
+    /**
+     * Builds every order and passes it to {@code sink}. The sink is called
+     * from several threads at once and must be thread-safe; orders reach it in
+     * no particular order. A RuntimeException thrown by the sink is counted
+     * in the report and ingestion continues.
+     */
+    public IngestionReport ingest(BufferedReader reader, Consumer<Pizza> sink) throws IOException {
+        long begin = System.nanoTime();
+        LongAdder accepted = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        Failures sinkFailures = new Failures();
+        List<String> samples = new ArrayList<>();
+
+        // Two batches per worker: one being built, one queued behind it
+        int maxInFlight = parallelism * 2;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, task -> {
+            Thread thread = new Thread(task, "order-ingestor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            long lineNumber = 0;
+            String line;
+            String[] batch = new String[batchSize];
+            int size = 0;
+            long firstLine = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (size == 0) {
+                    firstLine = lineNumber;
+                }
+                batch[size++] = line;
+                if (size == batchSize) {
+                    submit(workers, inFlight, batch, size, firstLine, sink, accepted, rejected, sinkFailures,
+                            samples);
+                    batch = new String[batchSize];
+                    size = 0;
+                }
+            }
+            if (size > 0) {
+                submit(workers, inFlight, batch, size, firstLine, sink, accepted, rejected, sinkFailures, samples);
+            }
+            inFlight.acquire(maxInFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while ingesting orders", e);
+        } finally {
+            workers.shutdownNow();
+        }
+        synchronized (samples) {
+            return new IngestionReport(accepted.sum(), rejected.sum(), sinkFailures.count.sum(),
+                    sinkFailures.first, System.nanoTime() - begin, new ArrayList<>(samples));
+        }
+    }
+
+    private void submit(ExecutorService workers, Semaphore inFlight, String[] batch, int size, long firstLine,
+            Consumer<Pizza> sink, LongAdder accepted, LongAdder rejected, Failures sinkFailures,
+            List<String> samples) throws InterruptedException {
+        // Blocks the reader while all workers are busy, which bounds memory
+        inFlight.acquire();
+        workers.execute(() -> {
+            try {
+                process(batch, size, firstLine, sink, accepted, rejected, sinkFailures, samples);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    // Exceptions thrown by the sink: how many, and the first one for its stack trace
+    private static final class Failures {
+        final LongAdder count = new LongAdder();
+        volatile RuntimeException first;
+
+        void add(RuntimeException e) {
+            count.increment();
+            if (first == null) {
+                synchronized (this) {
+                    if (first == null) {
+                        first = e;
+                    }
+                }
+            }
+        }
+    }
+
+    private void process(String[] batch, int size, long firstLine, Consumer<Pizza> sink,
+            LongAdder accepted, LongAdder rejected, Failures sinkFailures, List<String> samples) {
+        PizzaBuilder builder = builders.get();
+        long acceptedCount = 0;
+        for (int i = 0; i < size; i++) {
+            String line = batch[i];
+            long lineNumber = firstLine + i;
+            if (isSkipped(line, lineNumber)) {
+                continue;
+            }
+            Pizza pizza;
+            try {
+                pizza = parse(line, builder.reset());
+            } catch (RuntimeException e) {
+                rejected.increment();
+                synchronized (samples) {
+                    if (samples.size() < MAX_REJECTION_SAMPLES) {
+                        samples.add("line " + lineNumber + ": " + e.getMessage());
+                    }
+                }
+                continue;
+            }
+            try {
+                sink.accept(pizza);
+                acceptedCount++;
+            } catch (RuntimeException e) {
+                sinkFailures.add(e);
+            }
+        }
+        accepted.add(acceptedCount);
+    }
+
+    private static boolean isSkipped(String line, long lineNumber) {
+        return line.isBlank() || line.startsWith("#") || (lineNumber == 1 && line.startsWith("size,"));
+    }
+
+    /**
+     * Parses one CSV order line with the given builder. The whole line is
+     * checked before any ingredient is interned, so malformed lines do not
+     * grow the shared vocabulary.
+     *
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    static Pizza parse(String line, PizzaBuilder builder) {
+        int sizeEnd = line.indexOf(',');
+        int crustEnd = sizeEnd < 0 ? -1 : line.indexOf(',', sizeEnd + 1);
+        int sauceEnd = crustEnd < 0 ? -1 : line.indexOf(',', crustEnd + 1);
+        if (sauceEnd < 0 || line.indexOf(',', sauceEnd + 1) >= 0) {
+            throw new IllegalArgumentException("expected 4 fields: " + line);
+        }
+        builder.setSize(field(line, 0, sizeEnd, "size"))
+                .setCrustType(field(line, sizeEnd + 1, crustEnd, "crust type"));
+        checkIngredient(line, crustEnd + 1, sauceEnd, "sauce");
+        for (int start = sauceEnd + 1; start < line.length(); ) {
+            int end = line.indexOf('|', start);
+            if (end < 0) {
+                end = line.length();
+            }
+            checkIngredient(line, start, end, "topping");
+            start = end + 1;
+        }
+
+        builder.setSauce(field(line, crustEnd + 1, sauceEnd, "sauce"));
+        int start = sauceEnd + 1;
+        while (start < line.length()) {
+            int end = line.indexOf('|', start);
+            if (end < 0) {
+                end = line.length();
+            }
+            builder.addTopping(field(line, start, end, "topping"));
+            start = end + 1;
+        }
+        return builder.build();
+    }
+
+    // Same checks as field() and Ingredients.idOf, without copying short names
+    private static void checkIngredient(String line, int start, int end, String name) {
+        while (start < end && line.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && line.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            throw new IllegalArgumentException("empty " + name + ": " + line);
+        }
+        if (end - start > Ingredients.MAX_NAME_BYTES / 3) {
+            Ingredients.checkName(line.substring(start, end));
+        }
+    }
+
+    private static String field(String line, int start, int end, String name) {
+        String value = line.substring(start, end).trim();
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("empty " + name + ": " + line);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,29 @@
+package Creational.Builder;
+
+public enum Size {
+    SMALL("small"),
+    MEDIUM("medium"),
+    LARGE("large");
+
+    private final String name;
+
+    Size(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Looks up a size by name, ignoring case.
+     */
+    public static Size fromName(String name) {
+        for (Size size : values()) {
+            if (size.name.equalsIgnoreCase(name)) {
+                return size;
+            }
+        }
+        throw new IllegalArgumentException("Unknown pizza size: " + name);
+    }
+}
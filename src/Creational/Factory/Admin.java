@@ -1,16 +1,24 @@
 package Creational.Factory;
 
-import java.util.Arrays;
 import java.util.List;
 
-public class Admin implements User {
+/**
+ * Roles are immutable, so the factory hands out the shared {@link #INSTANCE}.
+ */
+public final class Admin implements User {
+    public static final Admin INSTANCE = new Admin();
+
     private final String role = "Admin";
-    private final List<String> permissions = Arrays.asList(
-            "create_user",
-            "delete_user",
-            "edit_user",
-            "manage_system",
-            "view_logs");
+    private final long permissionMask = Permission.maskOf(
+            Permission.CREATE_USER,
+            Permission.DELETE_USER,
+            Permission.EDIT_USER,
+            Permission.MANAGE_SYSTEM,
+            Permission.VIEW_LOGS);
+    private final List<String> permissions = Permission.namesOf(permissionMask);
+
+    private Admin() {
+    }
 
     @Override
     public String getRole() {
@@ -21,4 +29,9 @@ public class Admin implements User {
     public List<String> getPermissions() {
         return permissions;
     }
-}
\ No newline at end of file
+
+    @Override
+    public long getPermissionMask() {
+        return permissionMask;
+    }
+}
@@ -0,0 +1,85 @@
+package Creational.Factory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures AuthorizationEngine throughput with one checking thread per core.
+ * Pass the measurement time in seconds as the first argument (default 5).
+ */
+public class AuthorizationBenchmark {
+    private static final int RESOURCE_COUNT = 10_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        // Nobody may delete anything under /system, whatever their role
+        AuthorizationEngine engine = AuthorizationEngine.withDefaultHierarchy(
+                (role, permission, resource) -> !(permission == Permission.DELETE_CONTENT
+                        && resource.startsWith("/system")));
+
+        String[] resources = new String[RESOURCE_COUNT];
+        for (int i = 0; i < resources.length; i++) {
+            resources[i] = (i % 10 == 0 ? "/system/" : "/docs/") + i;
+        }
+        User[] users = { Admin.INSTANCE, Moderator.INSTANCE, RegularUser.INSTANCE };
+        Permission[] permissions = Permission.values();
+
+        System.out.println("Threads: " + threads + ", resources: " + RESOURCE_COUNT
+                + ", decision cache slots: " + engine.getCacheSize());
+
+        // Warm up the JIT and the decision cache before measuring
+        run(engine, users, permissions, resources, threads, 1);
+        long decisions = run(engine, users, permissions, resources, threads, seconds);
+
+        System.out.printf("Decisions: %,d in %d s%n", decisions, seconds);
+        System.out.printf("Throughput: %,.0f decisions/s (%,.0f per thread)%n",
+                decisions / (double) seconds, decisions / (double) seconds / threads);
+    }
+
+    private static long run(AuthorizationEngine engine, User[] users, Permission[] permissions,
+            String[] resources, int threads, int seconds) throws InterruptedException {
+        LongAdder total = new LongAdder();
+        LongAdder allowed = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int seed = t * 7919;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long count = 0;
+                long granted = 0;
+                int i = seed;
+                // Check the clock only every 4096 decisions
+                while ((count & 4095) != 0 || System.nanoTime() < deadline) {
+                    User user = users[i % users.length];
+                    Permission permission = permissions[i % permissions.length];
+                    if (engine.isAllowed(user, permission, resources[i % resources.length])) {
+                        granted++;
+                    }
+                    i++;
+                    count++;
+                }
+                total.add(count);
+                allowed.add(granted);
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        // Reading the allowed count keeps the checks from being optimized away
+        if (allowed.sum() < 0) {
+            System.out.println(allowed.sum());
+        }
+        return total.sum();
+    }
+}
@@ -0,0 +1,165 @@
+package Creational.Factory;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers "may this user do that to this resource?" for the roles created by
+ * the {@link UserFactory}.
+ *
+ * Roles are registered with their parent roles, and each role's effective
+ * permissions (its own plus everything it inherits) are computed once at
+ * registration. Resource-level checks go through a {@link ResourcePolicy},
+ * whose answers are memoized in a bounded, lock-free decision cache.
+ */
+public class AuthorizationEngine {
+    public static final int DEFAULT_CACHE_SIZE = 1 << 16;
+
+    /**
+     * Decides resource-level access once the role is known to hold the
+     * permission. Must be thread-safe and must always return the same answer
+     * for the same arguments, since answers are cached.
+     */
+    public interface ResourcePolicy {
+        ResourcePolicy ALLOW_ALL = (role, permission, resource) -> true;
+
+        boolean allows(User role, Permission permission, String resource);
+    }
+
+    private static final class RoleNode {
+        final int id;
+        final User role;
+        final long effectiveMask;
+
+        RoleNode(int id, User role, long effectiveMask) {
+            this.id = id;
+            this.role = role;
+            this.effectiveMask = effectiveMask;
+        }
+    }
+
+    // Immutable, so entries can be shared between threads through a plain array
+    private static final class Decision {
+        final int roleId;
+        final Permission permission;
+        final String resource;
+        final boolean allowed;
+
+        Decision(int roleId, Permission permission, String resource, boolean allowed) {
+            this.roleId = roleId;
+            this.permission = permission;
+            this.resource = resource;
+            this.allowed = allowed;
+        }
+    }
+
+    private final ConcurrentHashMap<String, RoleNode> roles = new ConcurrentHashMap<>();
+    private final ResourcePolicy policy;
+    private final int cacheSize;
+    // Direct-mapped: each (role, permission, resource) hashes to one slot and
+    // a newer decision simply overwrites the old one
+    private volatile Decision[] decisions;
+
+    public AuthorizationEngine() {
+        this(ResourcePolicy.ALLOW_ALL, DEFAULT_CACHE_SIZE);
+    }
+
+    public AuthorizationEngine(ResourcePolicy policy, int cacheSize) {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + cacheSize);
+        }
+        this.policy = policy;
+        // Round up to a power of two so a slot is a mask instead of a modulo
+        this.cacheSize = cacheSize == 1 ? 1 : Integer.highestOneBit(Math.min(cacheSize, 1 << 30) - 1) << 1;
+        this.decisions = new Decision[this.cacheSize];
+    }
+
+    /**
+     * An engine with the built-in roles in a hierarchy: Admin inherits from
+     * Moderator, which inherits from Regular User.
+     */
+    public static AuthorizationEngine withDefaultHierarchy(ResourcePolicy policy) {
+        AuthorizationEngine engine = new AuthorizationEngine(policy, DEFAULT_CACHE_SIZE);
+        engine.registerRole(RegularUser.INSTANCE);
+        engine.registerRole(Moderator.INSTANCE, RegularUser.INSTANCE);
+        engine.registerRole(Admin.INSTANCE, Moderator.INSTANCE);
+        return engine;
+    }
+
+    /**
+     * Registers a role that inherits every permission of its parents. Parents
+     * must be registered first, which also rules out cycles.
+     */
+    public synchronized void registerRole(User role, User... parents) {
+        if (roles.containsKey(role.getRole())) {
+            throw new IllegalStateException("Role already registered: " + role.getRole());
+        }
+        long effectiveMask = role.getPermissionMask();
+        for (User parent : parents) {
+            RoleNode parentNode = roles.get(parent.getRole());
+            if (parentNode == null) {
+                throw new IllegalArgumentException(
+                        "Parent role " + parent.getRole() + " of " + role.getRole() + " is not registered");
+            }
+            effectiveMask |= parentNode.effectiveMask;
+        }
+        roles.put(role.getRole(), new RoleNode(roles.size(), role, effectiveMask));
+    }
+
+    public long getEffectivePermissionMask(User user) {
+        return node(user).effectiveMask;
+    }
+
+    /**
+     * Checks the permission including inherited ones, without a resource.
+     */
+    public boolean hasPermission(User user, Permission permission) {
+        return (node(user).effectiveMask & permission.mask()) != 0;
+    }
+
+    /**
+     * Checks the permission on a specific resource. Allocates only when the
+     * decision is not cached yet.
+     */
+    public boolean isAllowed(User user, Permission permission, String resource) {
+        RoleNode node = node(user);
+        if ((node.effectiveMask & permission.mask()) == 0) {
+            // No policy can grant a permission the role does not hold
+            return false;
+        }
+        Decision[] table = decisions;
+        int slot = slot(node.id, permission, resource) & (table.length - 1);
+        Decision cached = table[slot];
+        if (cached != null && cached.roleId == node.id && cached.permission == permission
+                && cached.resource.equals(resource)) {
+            return cached.allowed;
+        }
+        boolean allowed = policy.allows(node.role, permission, resource);
+        table[slot] = new Decision(node.id, permission, resource, allowed);
+        return allowed;
+    }
+
+    /**
+     * Drops all cached decisions, e.g. after the policy's rules changed.
+     */
+    public void invalidateDecisions() {
+        decisions = new Decision[cacheSize];
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    private RoleNode node(User user) {
+        RoleNode node = roles.get(user.getRole());
+        if (node == null) {
+            throw new IllegalArgumentException("Role is not registered: " + user.getRole());
+        }
+        return node;
+    }
+
+    private static int slot(int roleId, Permission permission, String resource) {
+        int h = resource.hashCode() * 31 + (roleId * Long.SIZE + permission.ordinal());
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -1,5 +1,8 @@
 package Creational.Factory;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Main class that demonstrates the Factory Pattern using a User Factory
  * example.
@@ -25,5 +28,20 @@ public class FactoryMain {
         System.out.println("\n=== Regular User ===");
         System.out.println("Role: " + regularUser.getRole());
         System.out.println("Permissions: " + regularUser.getPermissions());
+
+        // Roles are shared, and permission checks are a single bit test
+        System.out.println("\n=== Permission Checks ===");
+        System.out.println("Same admin instance? " + (admin == userFactory.createUser("admin")));
+        System.out.println("Admin can view logs? " + admin.hasPermission(Permission.VIEW_LOGS));
+        System.out.println("Moderator can view logs? " + moderator.hasPermission(Permission.VIEW_LOGS));
+        long contentEditor = Permission.maskOf(Permission.VIEW_CONTENT, Permission.EDIT_OWN_CONTENT);
+        System.out.println("Regular user can view and edit own content? " + regularUser.hasAll(contentEditor));
+
+        // Lookups ignore case, and many users can be created in one call
+        System.out.println("\n=== Bulk Provisioning ===");
+        List<User> users = userFactory.createUsers(Arrays.asList("Admin", "REGULAR", "moderator", "regular"));
+        for (User user : users) {
+            System.out.println("Created: " + user.getRole());
+        }
     }
 }
\ No newline at end of file
@@ -1,15 +1,23 @@
 package Creational.Factory;
 
-import java.util.Arrays;
 import java.util.List;
 
-public class Moderator implements User {
+/**
+ * Roles are immutable, so the factory hands out the shared {@link #INSTANCE}.
+ */
+public final class Moderator implements User {
+    public static final Moderator INSTANCE = new Moderator();
+
     private final String role = "Moderator";
-    private final List<String> permissions = Arrays.asList(
-            "edit_content",
-            "delete_content",
-            "manage_users",
-            "view_reports");
+    private final long permissionMask = Permission.maskOf(
+            Permission.EDIT_CONTENT,
+            Permission.DELETE_CONTENT,
+            Permission.MANAGE_USERS,
+            Permission.VIEW_REPORTS);
+    private final List<String> permissions = Permission.namesOf(permissionMask);
+
+    private Moderator() {
+    }
 
     @Override
     public String getRole() {
@@ -20,4 +28,9 @@ public class Moderator implements User {
     public List<String> getPermissions() {
         return permissions;
     }
-}
\ No newline at end of file
+
+    @Override
+    public long getPermissionMask() {
+        return permissionMask;
+    }
+}
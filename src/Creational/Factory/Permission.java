@@ -0,0 +1,85 @@
+package Creational.Factory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The vocabulary of permissions a user can be granted. Each permission owns
+ * one bit, so a set of permissions fits in a single long and checking one is
+ * a single AND.
+ */
+public enum Permission {
+    CREATE_USER("create_user"),
+    DELETE_USER("delete_user"),
+    EDIT_USER("edit_user"),
+    MANAGE_SYSTEM("manage_system"),
+    VIEW_LOGS("view_logs"),
+    EDIT_CONTENT("edit_content"),
+    DELETE_CONTENT("delete_content"),
+    MANAGE_USERS("manage_users"),
+    VIEW_REPORTS("view_reports"),
+    VIEW_CONTENT("view_content"),
+    CREATE_CONTENT("create_content"),
+    EDIT_OWN_CONTENT("edit_own_content");
+
+    private static final Map<String, Permission> BY_NAME = new HashMap<>();
+
+    static {
+        if (values().length > Long.SIZE) {
+            throw new IllegalStateException("Permission masks hold at most " + Long.SIZE + " permissions");
+        }
+        for (Permission permission : values()) {
+            BY_NAME.put(permission.name, permission);
+        }
+    }
+
+    private final String name;
+    private final long mask;
+
+    Permission(String name) {
+        this.name = name;
+        this.mask = 1L << ordinal();
+    }
+
+    /**
+     * The name used in permission lists, e.g. "create_user".
+     */
+    public String getName() {
+        return name;
+    }
+
+    public long mask() {
+        return mask;
+    }
+
+    /**
+     * Looks up a permission by its name, or returns null if there is none.
+     */
+    public static Permission fromName(String name) {
+        return BY_NAME.get(name);
+    }
+
+    public static long maskOf(Permission... permissions) {
+        long mask = 0;
+        for (Permission permission : permissions) {
+            mask |= permission.mask;
+        }
+        return mask;
+    }
+
+    /**
+     * Names of the permissions in the mask, in declaration order.
+     */
+    public static List<String> namesOf(long mask) {
+        List<String> names = new ArrayList<>(Long.bitCount(mask));
+        for (Permission permission : values()) {
+            if ((mask & permission.mask) != 0) {
+                names.add(permission.name);
+            }
+        }
+        return Collections.unmodifiableList(names);
+    }
+}
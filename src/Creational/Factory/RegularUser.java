@@ -1,14 +1,22 @@
 package Creational.Factory;
 
-import java.util.Arrays;
 import java.util.List;
 
-public class RegularUser implements User {
+/**
+ * Roles are immutable, so the factory hands out the shared {@link #INSTANCE}.
+ */
+public final class RegularUser implements User {
+    public static final RegularUser INSTANCE = new RegularUser();
+
     private final String role = "Regular User";
-    private final List<String> permissions = Arrays.asList(
-            "view_content",
-            "create_content",
-            "edit_own_content");
+    private final long permissionMask = Permission.maskOf(
+            Permission.VIEW_CONTENT,
+            Permission.CREATE_CONTENT,
+            Permission.EDIT_OWN_CONTENT);
+    private final List<String> permissions = Permission.namesOf(permissionMask);
+
+    private RegularUser() {
+    }
 
     @Override
     public String getRole() {
@@ -19,4 +27,9 @@ public class RegularUser implements User {
     public List<String> getPermissions() {
         return permissions;
     }
-}
\ No newline at end of file
+
+    @Override
+    public long getPermissionMask() {
+        return permissionMask;
+    }
+}
@@ -0,0 +1,11 @@
+package Creational.Factory;
+
+/**
+ * Service provider interface for adding roles without editing the factory.
+ * Implementations are discovered with {@link java.util.ServiceLoader} when the
+ * default {@link RoleRegistry} is created, by listing them in
+ * META-INF/services/Creational.Factory.RoleProvider.
+ */
+public interface RoleProvider {
+    void registerRoles(RoleRegistry registry);
+}
@@ -0,0 +1,140 @@
+package Creational.Factory;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Maps user type names to the roles the {@link UserFactory} creates.
+ *
+ * Lookups are case-insensitive and never allocate: registration precomputes
+ * an open-addressing table hashed on case-folded characters, and lookups
+ * compare with {@link String#equalsIgnoreCase}. Registration rebuilds the
+ * table and publishes it with a single volatile write, so lookups take no
+ * lock.
+ */
+public final class RoleRegistry {
+    private static final RoleRegistry DEFAULT = createDefault();
+
+    // Registration order is kept so getRegisteredTypes() is predictable
+    private final Map<String, Supplier<? extends User>> registrations = new LinkedHashMap<>();
+    private volatile Table table = new Table(registrations);
+
+    /**
+     * The registry used by {@code new UserFactory()}: the built-in roles plus
+     * any {@link RoleProvider} found on the class path.
+     */
+    public static RoleRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * A registry holding only the built-in roles.
+     */
+    public static RoleRegistry withBuiltInRoles() {
+        RoleRegistry registry = new RoleRegistry();
+        registry.register("admin", () -> Admin.INSTANCE);
+        registry.register("moderator", () -> Moderator.INSTANCE);
+        registry.register("regular", () -> RegularUser.INSTANCE);
+        return registry;
+    }
+
+    private static RoleRegistry createDefault() {
+        RoleRegistry registry = withBuiltInRoles();
+        for (RoleProvider provider : ServiceLoader.load(RoleProvider.class)) {
+            provider.registerRoles(registry);
+        }
+        return registry;
+    }
+
+    /**
+     * Registers a role, replacing any role registered under the same name
+     * ignoring case.
+     */
+    public synchronized void register(String userType, Supplier<? extends User> role) {
+        if (userType == null || userType.isEmpty()) {
+            throw new IllegalArgumentException("User type must not be empty");
+        }
+        if (role == null) {
+            throw new IllegalArgumentException("Role supplier must not be null for " + userType);
+        }
+        registrations.keySet().removeIf(userType::equalsIgnoreCase);
+        registrations.put(userType, role);
+        table = new Table(registrations);
+    }
+
+    public synchronized void unregister(String userType) {
+        if (registrations.keySet().removeIf(name -> name.equalsIgnoreCase(userType))) {
+            table = new Table(registrations);
+        }
+    }
+
+    /**
+     * Creates the role registered for the type, or returns null if there is
+     * none.
+     */
+    public User create(String userType) {
+        Supplier<? extends User> role = table.find(userType);
+        return role == null ? null : role.get();
+    }
+
+    public boolean isRegistered(String userType) {
+        return table.find(userType) != null;
+    }
+
+    public synchronized Set<String> getRegisteredTypes() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(registrations.keySet()));
+    }
+
+    // Immutable open-addressing table with linear probing, at most half full
+    private static final class Table {
+        private final String[] names;
+        private final Supplier<?>[] roles;
+        private final int mask;
+
+        Table(Map<String, Supplier<? extends User>> registrations) {
+            int capacity = Integer.highestOneBit(Math.max(4, registrations.size() * 2) - 1) << 1;
+            names = new String[capacity];
+            roles = new Supplier<?>[capacity];
+            mask = capacity - 1;
+            for (Map.Entry<String, Supplier<? extends User>> registration : registrations.entrySet()) {
+                int slot = hash(registration.getKey()) & mask;
+                while (names[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                names[slot] = registration.getKey();
+                roles[slot] = registration.getValue();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        Supplier<? extends User> find(String userType) {
+            if (userType == null) {
+                return null;
+            }
+            int slot = hash(userType) & mask;
+            String name;
+            while ((name = names[slot]) != null) {
+                if (name.equalsIgnoreCase(userType)) {
+                    return (Supplier<? extends User>) roles[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        // Folds case the same way equalsIgnoreCase compares characters, so
+        // names that compare equal always hash equal
+        private static int hash(String name) {
+            int h = 0;
+            for (int i = 0; i < name.length(); i++) {
+                h = 31 * h + Character.toLowerCase(Character.toUpperCase(name.charAt(i)));
+            }
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -6,4 +6,25 @@ public interface User {
     String getRole();
 
     List<String> getPermissions();
-}
\ No newline at end of file
+
+    /**
+     * The granted permissions as a bitmask of {@link Permission#mask()} bits.
+     */
+    long getPermissionMask();
+
+    default boolean hasPermission(Permission permission) {
+        return (getPermissionMask() & permission.mask()) != 0;
+    }
+
+    /**
+     * Checks a set of permissions at once. Build the mask once with
+     * {@link Permission#maskOf} and reuse it on hot paths.
+     */
+    default boolean hasAll(long permissionMask) {
+        return (getPermissionMask() & permissionMask) == permissionMask;
+    }
+
+    default boolean hasAny(long permissionMask) {
+        return (getPermissionMask() & permissionMask) != 0;
+    }
+}
@@ -1,12 +1,45 @@
 package Creational.Factory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
 public class UserFactory {
+    private final RoleRegistry registry;
+
+    public UserFactory() {
+        this(RoleRegistry.getDefault());
+    }
+
+    public UserFactory(RoleRegistry registry) {
+        this.registry = registry;
+    }
+
+    // Roles are immutable, so the built-in types return shared instances
     public User createUser(String userType) {
-        return switch (userType.toLowerCase()) {
-            case "admin" -> new Admin();
-            case "moderator" -> new Moderator();
-            case "regular" -> new RegularUser();
-            default -> throw new IllegalArgumentException("Invalid user type: " + userType);
-        };
-    }
-}
\ No newline at end of file
+        User user = registry.create(userType);
+        if (user == null) {
+            throw new IllegalArgumentException("Invalid user type: " + userType);
+        }
+        return user;
+    }
+
+    /**
+     * Creates one user per type, in order. Fails on the first unknown type.
+     */
+    public List<User> createUsers(List<String> userTypes) {
+        List<User> users = new ArrayList<>(userTypes.size());
+        for (String userType : userTypes) {
+            users.add(createUser(userType));
+        }
+        return users;
+    }
+
+    /**
+     * Lazily maps a stream of types to users, for provisioning more accounts
+     * than fit in memory at once. The stream may be parallel.
+     */
+    public Stream<User> createUsers(Stream<String> userTypes) {
+        return userTypes.map(this::createUser);
+    }
+}
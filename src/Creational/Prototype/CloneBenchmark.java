@@ -0,0 +1,93 @@
+package Creational.Prototype;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Compares shallow, deep and copy-on-write cloning: time and bytes allocated
+ * per clone, both for clones that never move and for clones that all move
+ * once. Pass the number of clones per round as the first argument.
+ */
+public class CloneBenchmark {
+    private static final int ROUNDS = 5;
+
+    private interface Strategy {
+        Shape template();
+
+        void move(Shape shape);
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Strategy shallow = new Strategy() {
+            public Shape template() {
+                return new ShallowShape(new Point(0, 0), "Red");
+            }
+
+            public void move(Shape shape) {
+                ((ShallowShape) shape).moveX(1);
+            }
+        };
+        Strategy deep = new Strategy() {
+            public Shape template() {
+                return new DeepShape(new Point(0, 0), "Red");
+            }
+
+            public void move(Shape shape) {
+                ((DeepShape) shape).moveX(1);
+            }
+        };
+        Strategy copyOnWrite = new Strategy() {
+            public Shape template() {
+                return new CopyOnWriteShape(new Point(0, 0), "Red");
+            }
+
+            public void move(Shape shape) {
+                ((CopyOnWriteShape) shape).moveX(1);
+            }
+        };
+
+        Shape[] clones = new Shape[count];
+        System.out.printf("%,d clones per round, best of %d rounds%n%n", count, ROUNDS);
+        System.out.printf("%-15s %14s %14s %18s %18s%n", "strategy", "clone ns", "clone bytes",
+                "clone+move ns", "clone+move bytes");
+        run("shallow", shallow, clones);
+        run("deep", deep, clones);
+        run("copy-on-write", copyOnWrite, clones);
+        System.out.println("\nShallow clones share one Point, so moving one moves them all.");
+    }
+
+    private static void run(String name, Strategy strategy, Shape[] clones) {
+        long[] cloneOnly = measure(strategy, clones, false);
+        long[] cloneAndMove = measure(strategy, clones, true);
+        System.out.printf("%-15s %14.1f %14.1f %18.1f %18.1f%n", name,
+                cloneOnly[0] / (double) clones.length, cloneOnly[1] / (double) clones.length,
+                cloneAndMove[0] / (double) clones.length, cloneAndMove[1] / (double) clones.length);
+    }
+
+    // Returns the best {nanos, allocated bytes} over several rounds
+    private static long[] measure(Strategy strategy, Shape[] clones, boolean move) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long bestNanos = Long.MAX_VALUE;
+        long bestBytes = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            Shape template = strategy.template();
+            long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+            long begin = System.nanoTime();
+            for (int i = 0; i < clones.length; i++) {
+                clones[i] = template.clone();
+            }
+            if (move) {
+                for (Shape clone : clones) {
+                    strategy.move(clone);
+                }
+            }
+            long nanos = System.nanoTime() - begin;
+            long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+            bestNanos = Math.min(bestNanos, nanos);
+            bestBytes = Math.min(bestBytes, bytes);
+        }
+        return new long[] { bestNanos, bestBytes };
+    }
+}
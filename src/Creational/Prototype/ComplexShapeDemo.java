@@ -1,55 +1,5 @@
 package Creational.Prototype;
 
-class ShallowShape implements Shape {
-    private Point center;
-    private String color;
-
-    public ShallowShape(Point center, String color) {
-        this.center = center;
-        this.color = color;
-    }
-
-    @Override
-    public Shape clone() {
-        // Shallow copy - both objects will share the same Point reference
-        return new ShallowShape(this.center, this.color);
-    }
-
-    public void moveX(int dx) {
-        center.setX(center.getX() + dx);
-    }
-
-    @Override
-    public String getInfo() {
-        return "ShallowShape [center=" + center + ", color=" + color + "]";
-    }
-}
-
-class DeepShape implements Shape {
-    private Point center;
-    private String color;
-
-    public DeepShape(Point center, String color) {
-        this.center = center;
-        this.color = color;
-    }
-
-    @Override
-    public Shape clone() {
-        // Deep copy - creates a new Point object
-        return new DeepShape(new Point(this.center.getX(), this.center.getY()), this.color);
-    }
-
-    public void moveX(int dx) {
-        center.setX(center.getX() + dx);
-    }
-
-    @Override
-    public String getInfo() {
-        return "DeepShape [center=" + center + ", color=" + color + "]";
-    }
-}
-
 public class ComplexShapeDemo {
     public static void main(String[] args) {
         // Demonstrate Shallow Copy
@@ -85,5 +35,22 @@ public class ComplexShapeDemo {
         System.out.println("\nAfter moving original:");
         System.out.println("Original: " + originalDeep.getInfo());
         System.out.println("Clone: " + clonedDeep.getInfo()); // Clone's position remains unchanged!
+
+        // Demonstrate Copy-on-Write
+        System.out.println("\nCopy-on-Write Demonstration:");
+        Point point3 = new Point(0, 0);
+        CopyOnWriteShape originalCow = new CopyOnWriteShape(point3, "Green");
+        Shape clonedCow = originalCow.clone(); // Shares the Point for now
+
+        System.out.println("Before moving original:");
+        System.out.println("Original: " + originalCow.getInfo());
+        System.out.println("Clone: " + clonedCow.getInfo());
+
+        // Moving copies the Point first
+        originalCow.moveX(5);
+
+        System.out.println("\nAfter moving original:");
+        System.out.println("Original: " + originalCow.getInfo());
+        System.out.println("Clone: " + clonedCow.getInfo()); // Clone's position remains unchanged!
     }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package Creational.Prototype;
+
+class CopyOnWriteShape implements Shape, Movable {
+    private Point center;
+    private String color;
+    // False while the center may be shared with a clone
+    private boolean ownsCenter;
+
+    public CopyOnWriteShape(Point center, String color) {
+        this(center, color, true);
+    }
+
+    private CopyOnWriteShape(Point center, String color, boolean ownsCenter) {
+        this.center = center;
+        this.color = color;
+        this.ownsCenter = ownsCenter;
+    }
+
+    @Override
+    public Shape clone() {
+        // As cheap as a shallow copy: the Point is shared until one side moves
+        ownsCenter = false;
+        return new CopyOnWriteShape(this.center, this.color, false);
+    }
+
+    public void moveX(int dx) {
+        ensureOwnCenter();
+        center.setX(center.getX() + dx);
+    }
+
+    @Override
+    public void moveBy(int dx, int dy) {
+        ensureOwnCenter();
+        center.setX(center.getX() + dx);
+        center.setY(center.getY() + dy);
+    }
+
+    // Copy the shared Point before the first change, like a deep copy would
+    private void ensureOwnCenter() {
+        if (!ownsCenter) {
+            center = new Point(center.getX(), center.getY());
+            ownsCenter = true;
+        }
+    }
+
+    @Override
+    public String getInfo() {
+        return "CopyOnWriteShape [center=" + center + ", color=" + color + "]";
+    }
+}
@@ -0,0 +1,306 @@
+package Creational.Prototype;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deep-copies object graphs without hand-written clone methods.
+ *
+ * The first copy of a class inspects its fields once and builds a copier from
+ * method handles, cached per class. Later copies just run those handles.
+ *
+ * - Objects reachable more than once are copied once, so shared references
+ *   and cycles look the same in the copy
+ * - Arrays and the common java.util collections and maps are copied element
+ *   by element. Other JDK classes are rejected, because their internals are
+ *   not accessible
+ * - Strings, boxed primitives, enums and classes annotated with
+ *   {@link Immutable} or registered with {@link #registerImmutable} are shared
+ * - Transient fields are not copied and keep their default value, as with
+ *   serialization
+ *
+ * Instances are created without running a constructor when the JVM allows it,
+ * otherwise through a no-argument constructor.
+ */
+public class DeepCopier {
+    private static final DeepCopier DEFAULT = new DeepCopier();
+    private static final MethodType COPY_FIELD = MethodType.methodType(void.class, Object.class, Object.class);
+
+    // sun.misc.Unsafe#allocateInstance, or null if it is not available
+    private static final MethodHandle ALLOCATE_INSTANCE;
+
+    static {
+        MethodHandle allocate = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Method allocateInstance = unsafeClass.getMethod("allocateInstance", Class.class);
+            allocate = MethodHandles.lookup().unreflect(allocateInstance).bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Fall back to no-argument constructors
+        }
+        ALLOCATE_INSTANCE = allocate;
+    }
+
+    private final Set<Class<?>> immutableTypes = ConcurrentHashMap.newKeySet();
+    private final ClassValue<TypeCopier> copiers = new ClassValue<TypeCopier>() {
+        @Override
+        protected TypeCopier computeValue(Class<?> type) {
+            return createCopier(type);
+        }
+    };
+
+    public DeepCopier() {
+        immutableTypes.add(String.class);
+        immutableTypes.add(Boolean.class);
+        immutableTypes.add(Character.class);
+        immutableTypes.add(Byte.class);
+        immutableTypes.add(Short.class);
+        immutableTypes.add(Integer.class);
+        immutableTypes.add(Long.class);
+        immutableTypes.add(Float.class);
+        immutableTypes.add(Double.class);
+        immutableTypes.add(BigInteger.class);
+        immutableTypes.add(BigDecimal.class);
+        immutableTypes.add(Class.class);
+    }
+
+    public static DeepCopier getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Shares instances of {@code type} instead of copying them. Use this for
+     * classes that cannot be annotated.
+     */
+    public void registerImmutable(Class<?> type) {
+        immutableTypes.add(type);
+        // Drop a copier built before the registration
+        copiers.remove(type);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T copy(T original) {
+        if (original == null) {
+            return null;
+        }
+        return (T) new CopyRun().copy(original);
+    }
+
+    // A copier for one class, built once and cached
+    private interface TypeCopier {
+        Object copy(Object original, CopyRun run) throws Throwable;
+    }
+
+    // The copies made during one call to copy(), by identity of the original
+    private final class CopyRun {
+        private final IdentityHashMap<Object, Object> copies = new IdentityHashMap<>();
+
+        Object copy(Object original) {
+            if (original == null) {
+                return null;
+            }
+            Object existing = copies.get(original);
+            if (existing != null) {
+                return existing;
+            }
+            try {
+                return copiers.get(original.getClass()).copy(original, this);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Could not copy " + original.getClass().getName(), e);
+            }
+        }
+
+        // Must be called before copying the contents, so cycles find the copy
+        void remember(Object original, Object copy) {
+            copies.put(original, copy);
+        }
+    }
+
+    private TypeCopier createCopier(Class<?> type) {
+        if (type.isEnum() || (type.getSuperclass() != null && type.getSuperclass().isEnum())
+                || immutableTypes.contains(type) || type.isAnnotationPresent(Immutable.class)) {
+            return (original, run) -> original;
+        }
+        if (type.isArray()) {
+            return arrayCopier(type.getComponentType());
+        }
+        TypeCopier collectionCopier = collectionCopier(type);
+        if (collectionCopier != null) {
+            return collectionCopier;
+        }
+        if (type.getName().startsWith("java.") || type.getName().startsWith("javax.")) {
+            throw new IllegalArgumentException("Cannot deep-copy " + type.getName()
+                    + ", register it as immutable if it never changes");
+        }
+        return objectCopier(type);
+    }
+
+    private static TypeCopier arrayCopier(Class<?> componentType) {
+        if (componentType.isPrimitive()) {
+            return (original, run) -> {
+                int length = Array.getLength(original);
+                Object copy = Array.newInstance(componentType, length);
+                System.arraycopy(original, 0, copy, 0, length);
+                run.remember(original, copy);
+                return copy;
+            };
+        }
+        return (original, run) -> {
+            Object[] source = (Object[]) original;
+            Object[] copy = (Object[]) Array.newInstance(componentType, source.length);
+            run.remember(original, copy);
+            for (int i = 0; i < source.length; i++) {
+                copy[i] = run.copy(source[i]);
+            }
+            return copy;
+        };
+    }
+
+    // Exact classes only: a subclass may add state these would not copy
+    private static TypeCopier collectionCopier(Class<?> type) {
+        if (type == ArrayList.class) {
+            return (original, run) -> fill((Collection<?>) original,
+                    new ArrayList<>(((Collection<?>) original).size()), run);
+        }
+        if (type == LinkedList.class) {
+            return (original, run) -> fill((Collection<?>) original, new LinkedList<>(), run);
+        }
+        if (type == ArrayDeque.class) {
+            return (original, run) -> fill((Collection<?>) original, new ArrayDeque<>(), run);
+        }
+        if (type == HashSet.class) {
+            return (original, run) -> fill((Collection<?>) original, new HashSet<>(), run);
+        }
+        if (type == LinkedHashSet.class) {
+            return (original, run) -> fill((Collection<?>) original, new LinkedHashSet<>(), run);
+        }
+        if (type == TreeSet.class) {
+            // The comparator is shared, like the ordering it stands for
+            return (original, run) -> fill((Collection<?>) original,
+                    new TreeSet<>(((TreeSet<?>) original).comparator()), run);
+        }
+        if (type == HashMap.class) {
+            return (original, run) -> fill((Map<?, ?>) original, new HashMap<>(), run);
+        }
+        if (type == LinkedHashMap.class) {
+            return (original, run) -> fill((Map<?, ?>) original, new LinkedHashMap<>(), run);
+        }
+        if (type == TreeMap.class) {
+            return (original, run) -> fill((Map<?, ?>) original,
+                    new TreeMap<>(((TreeMap<?, ?>) original).comparator()), run);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object fill(Collection<?> original, Collection<?> copy, CopyRun run) {
+        run.remember(original, copy);
+        for (Object element : original) {
+            ((Collection<Object>) copy).add(run.copy(element));
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object fill(Map<?, ?> original, Map<?, ?> copy, CopyRun run) {
+        run.remember(original, copy);
+        for (Map.Entry<?, ?> entry : original.entrySet()) {
+            ((Map<Object, Object>) copy).put(run.copy(entry.getKey()), run.copy(entry.getValue()));
+        }
+        return copy;
+    }
+
+    private static TypeCopier objectCopier(Class<?> type) {
+        MethodHandle allocate = allocator(type);
+        // Primitive fields are copied directly, reference fields are copied
+        // through the run so nested objects are copied too
+        List<MethodHandle> primitiveFields = new ArrayList<>();
+        List<MethodHandle> referenceGetters = new ArrayList<>();
+        List<MethodHandle> referenceSetters = new ArrayList<>();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    MethodHandle getter = lookup.unreflectGetter(field);
+                    MethodHandle setter = lookup.unreflectSetter(field);
+                    if (field.getType().isPrimitive()) {
+                        // (copy, original) -> copy.field = original.field
+                        primitiveFields.add(MethodHandles.filterArguments(setter, 1, getter).asType(COPY_FIELD));
+                    } else {
+                        referenceGetters.add(getter.asType(MethodType.methodType(Object.class, Object.class)));
+                        referenceSetters.add(setter.asType(COPY_FIELD));
+                    }
+                }
+            }
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new IllegalArgumentException("Cannot deep-copy " + type.getName(), e);
+        }
+        MethodHandle[] primitives = primitiveFields.toArray(new MethodHandle[0]);
+        MethodHandle[] getters = referenceGetters.toArray(new MethodHandle[0]);
+        MethodHandle[] setters = referenceSetters.toArray(new MethodHandle[0]);
+        return (original, run) -> {
+            Object copy = allocate.invokeExact();
+            run.remember(original, copy);
+            for (MethodHandle field : primitives) {
+                field.invokeExact(copy, original);
+            }
+            for (int i = 0; i < getters.length; i++) {
+                Object value = (Object) getters[i].invokeExact(original);
+                setters[i].invokeExact(copy, run.copy(value));
+            }
+            return copy;
+        };
+    }
+
+    // () -> Object creating an empty instance of type
+    private static MethodHandle allocator(Class<?> type) {
+        if (Modifier.isAbstract(type.getModifiers())) {
+            throw new IllegalArgumentException("Cannot instantiate " + type.getName());
+        }
+        if (ALLOCATE_INSTANCE != null) {
+            return MethodHandles.insertArguments(ALLOCATE_INSTANCE, 0, type)
+                    .asType(MethodType.methodType(Object.class));
+        }
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asType(MethodType.methodType(Object.class));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalArgumentException(type.getName()
+                    + " needs a no-argument constructor to be deep-copied", e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package Creational.Prototype;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shows what DeepCopier copies and compares its speed with copying through
+ * Java serialization. Pass the number of copies per round as the first
+ * argument.
+ */
+public class DeepCopyBenchmark {
+    private static final int ROUNDS = 5;
+
+    enum Layer {
+        BACKGROUND, FOREGROUND
+    }
+
+    // A scene graph with shared nodes and parent/child cycles
+    static class Node implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        int x;
+        int y;
+        double[] weights = { 0.5, 1.5 };
+        Layer layer = Layer.FOREGROUND;
+        Node parent;
+        List<Node> children = new ArrayList<>();
+
+        Node(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        Node add(Node child) {
+            child.parent = this;
+            children.add(child);
+            return child;
+        }
+    }
+
+    static class Scene implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        String name;
+        Node root = new Node(0, 0);
+        Map<String, Node> byName = new HashMap<>();
+
+        Scene(String name, int size) {
+            this.name = name;
+            for (int i = 0; i < size; i++) {
+                Node group = root.add(new Node(i, i));
+                for (int j = 0; j < 4; j++) {
+                    group.add(new Node(i, j));
+                }
+                byName.put("group-" + i, group);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        DeepCopier copier = DeepCopier.getDefault();
+
+        DeepShape shape = new DeepShape(new Point(3, 4), "Blue");
+        DeepShape shapeCopy = copier.copy(shape);
+        shapeCopy.moveX(10);
+        System.out.println("Original: " + shape.getInfo());
+        System.out.println("Copy:     " + shapeCopy.getInfo());
+
+        Scene scene = new Scene("level-1", 10);
+        Scene sceneCopy = copier.copy(scene);
+        Node group = sceneCopy.root.children.get(3);
+        System.out.println("Copied scene keeps cycles: " + (group.parent == sceneCopy.root)
+                + ", shared nodes: " + (sceneCopy.byName.get("group-3") == group)
+                + ", nothing points back to the original: " + (group != scene.root.children.get(3)));
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long begin = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                copier.copy(scene);
+            }
+            long copierNanos = System.nanoTime() - begin;
+            begin = System.nanoTime();
+            for (int i = 0; i < count / 10; i++) {
+                serializationCopy(scene);
+            }
+            // Serialization is timed on a tenth of the copies
+            long serializationNanos = (System.nanoTime() - begin) * 10;
+            System.out.printf("Round %d: DeepCopier %6.2f us/scene, serialization %7.2f us/scene (%.1fx)%n",
+                    round, copierNanos / 1e3 / count, serializationNanos / 1e3 / count,
+                    serializationNanos / (double) copierNanos);
+        }
+    }
+
+    private static Object serializationCopy(Object original) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(original);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return in.readObject();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package Creational.Prototype;
+
+class DeepShape implements Shape, Movable {
+    private Point center;
+    private String color;
+
+    public DeepShape(Point center, String color) {
+        this.center = center;
+        this.color = color;
+    }
+
+    @Override
+    public Shape clone() {
+        // Deep copy - creates a new Point object
+        return new DeepShape(new Point(this.center.getX(), this.center.getY()), this.color);
+    }
+
+    public Point getCenter() {
+        return center;
+    }
+
+    public void moveX(int dx) {
+        center.setX(center.getX() + dx);
+    }
+
+    @Override
+    public void moveBy(int dx, int dy) {
+        center.setX(center.getX() + dx);
+        center.setY(center.getY() + dy);
+    }
+
+    @Override
+    public String getInfo() {
+        return "DeepShape [center=" + center + ", color=" + color + "]";
+    }
+}
@@ -0,0 +1,16 @@
+package Creational.Prototype;
+
+/**
+ * A shape positioned by a center that can be moved.
+ */
+public interface Movable {
+    void moveBy(int dx, int dy);
+
+    /**
+     * Whether moving this shape can also move another one, as with shallow
+     * clones that share a center. Such shapes are never moved in parallel.
+     */
+    default boolean sharesState() {
+        return false;
+    }
+}
@@ -3,6 +3,13 @@ package Creational.Prototype;
 public class Point {
     private int x;
     private int y;
+    // Told about every move, for example by the SpatialIndex holding the point.
+    // Transient, so copies of a point are not indexed.
+    private transient MoveListener listener;
+
+    interface MoveListener {
+        void moved(Point point, int oldX, int oldY);
+    }
 
     public Point(int x, int y) {
         this.x = x;
@@ -18,11 +25,27 @@ public class Point {
     }
 
     public void setX(int x) {
+        int oldX = this.x;
         this.x = x;
+        if (listener != null && oldX != x) {
+            listener.moved(this, oldX, y);
+        }
     }
 
     public void setY(int y) {
+        int oldY = this.y;
         this.y = y;
+        if (listener != null && oldY != y) {
+            listener.moved(this, x, oldY);
+        }
+    }
+
+    MoveListener getListener() {
+        return listener;
+    }
+
+    void setListener(MoveListener listener) {
+        this.listener = listener;
     }
 
     @Override
@@ -1,5 +1,7 @@
 package Creational.Prototype;
 
+import java.util.List;
+
 public class PrototypeMain {
     public static void main(String[] args) {
         // Create original shapes
@@ -18,5 +20,11 @@ public class PrototypeMain {
         System.out.println("\nCloned shapes:");
         System.out.println(clonedCircle.getInfo());
         System.out.println(clonedRectangle.getInfo());
+
+        // Stamp out many copies from a registry of named prototypes
+        PrototypeRegistry registry = PrototypeRegistry.withDefaults();
+        List<Shape> circles = registry.cloneN("circle", 100_000);
+        System.out.println("\nCloned " + circles.size() + " circles from the registry, first: "
+                + circles.get(0).getInfo());
     }
 }
\ No newline at end of file
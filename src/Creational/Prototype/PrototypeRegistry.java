@@ -0,0 +1,84 @@
+package Creational.Prototype;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * A thread-safe catalog of named prototypes. Clients ask for copies by name
+ * instead of holding on to template objects themselves.
+ */
+public class PrototypeRegistry {
+    // Below this many copies, splitting the work across cores costs more than it saves
+    static final int PARALLEL_THRESHOLD = 10_000;
+
+    private final ConcurrentHashMap<String, Shape> templates = new ConcurrentHashMap<>();
+
+    /**
+     * A registry holding a red circle, a blue rectangle and a deep-copying
+     * shape at the origin.
+     */
+    public static PrototypeRegistry withDefaults() {
+        PrototypeRegistry registry = new PrototypeRegistry();
+        registry.register("circle", new Circle(10, "Red"));
+        registry.register("rectangle", new Rectangle(20, 30, "Blue"));
+        registry.register("deep-shape", new DeepShape(new Point(0, 0), "Green"));
+        return registry;
+    }
+
+    /**
+     * Stores a copy of the template, so later changes to the caller's object
+     * do not affect the registry.
+     */
+    public void register(String name, Shape template) {
+        templates.put(name, template.clone());
+    }
+
+    public void unregister(String name) {
+        templates.remove(name);
+    }
+
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(templates.keySet());
+    }
+
+    public Shape create(String name) {
+        return template(name).clone();
+    }
+
+    /**
+     * Returns {@code count} independent copies of the named prototype. Large
+     * counts are cloned in parallel.
+     */
+    public List<Shape> cloneN(String name, int count) {
+        return Arrays.asList(cloneArray(name, count));
+    }
+
+    public Shape[] cloneArray(String name, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + count);
+        }
+        // Look the template up once, not once per copy
+        Shape template = template(name);
+        Shape[] copies = new Shape[count];
+        if (count < PARALLEL_THRESHOLD) {
+            for (int i = 0; i < count; i++) {
+                copies[i] = template.clone();
+            }
+        } else {
+            IntStream.range(0, count).parallel().forEach(i -> copies[i] = template.clone());
+        }
+        return copies;
+    }
+
+    private Shape template(String name) {
+        Shape template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("No prototype registered as: " + name);
+        }
+        return template;
+    }
+}
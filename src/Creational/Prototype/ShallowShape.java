@@ -0,0 +1,42 @@
+package Creational.Prototype;
+
+class ShallowShape implements Shape, Movable {
+    private Point center;
+    private String color;
+
+    public ShallowShape(Point center, String color) {
+        this.center = center;
+        this.color = color;
+    }
+
+    @Override
+    public Shape clone() {
+        // Shallow copy - both objects will share the same Point reference
+        return new ShallowShape(this.center, this.color);
+    }
+
+    public Point getCenter() {
+        return center;
+    }
+
+    public void moveX(int dx) {
+        center.setX(center.getX() + dx);
+    }
+
+    @Override
+    public void moveBy(int dx, int dy) {
+        center.setX(center.getX() + dx);
+        center.setY(center.getY() + dy);
+    }
+
+    @Override
+    public boolean sharesState() {
+        // Any clone may hold the same Point
+        return true;
+    }
+
+    @Override
+    public String getInfo() {
+        return "ShallowShape [center=" + center + ", color=" + color + "]";
+    }
+}
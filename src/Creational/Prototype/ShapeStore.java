@@ -0,0 +1,284 @@
+package Creational.Prototype;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar storage for large numbers of shapes.
+ *
+ * Instead of one object per shape (plus one per Point), every attribute is a
+ * primitive array indexed by row: kind, x, y, width, height and a
+ * dictionary-encoded color. A shape costs 19 bytes and no object header, and
+ * cloning a block of shapes is a plain array copy per column.
+ *
+ * {@link #view(int)} returns a lightweight {@link Shape} backed by a row, for
+ * code that works with the Shape interface. Not thread-safe.
+ */
+public class ShapeStore {
+    public enum Kind {
+        /** Uses width as the radius */
+        CIRCLE,
+        RECTANGLE,
+        /** A shape positioned by its center, like DeepShape */
+        CENTERED
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private byte[] kinds;
+    private int[] xs;
+    private int[] ys;
+    private int[] widths;
+    private int[] heights;
+    private short[] colors;
+    private int size;
+
+    private final List<String> colorNames = new ArrayList<>();
+    private final Map<String, Short> colorIds = new HashMap<>();
+
+    public ShapeStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public ShapeStore(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        kinds = new byte[capacity];
+        xs = new int[capacity];
+        ys = new int[capacity];
+        widths = new int[capacity];
+        heights = new int[capacity];
+        colors = new short[capacity];
+    }
+
+    public int addCircle(int radius, String color) {
+        return add(Kind.CIRCLE, 0, 0, radius, radius, color);
+    }
+
+    public int addRectangle(int width, int height, String color) {
+        return add(Kind.RECTANGLE, 0, 0, width, height, color);
+    }
+
+    public int addCentered(int x, int y, String color) {
+        return add(Kind.CENTERED, x, y, 0, 0, color);
+    }
+
+    private int add(Kind kind, int x, int y, int width, int height, String color) {
+        ensureCapacity(size + 1);
+        int row = size++;
+        kinds[row] = (byte) kind.ordinal();
+        xs[row] = x;
+        ys[row] = y;
+        widths[row] = width;
+        heights[row] = height;
+        colors[row] = colorId(color);
+        return row;
+    }
+
+    /**
+     * Appends a copy of the row and returns the new row.
+     */
+    public int cloneRow(int row) {
+        return cloneN(row, 1);
+    }
+
+    /**
+     * Appends {@code count} copies of the row and returns the first new row.
+     */
+    public int cloneN(int row, int count) {
+        checkRow(row);
+        ensureCapacity(size + count);
+        int first = size;
+        int end = first + count;
+        Arrays.fill(kinds, first, end, kinds[row]);
+        Arrays.fill(xs, first, end, xs[row]);
+        Arrays.fill(ys, first, end, ys[row]);
+        Arrays.fill(widths, first, end, widths[row]);
+        Arrays.fill(heights, first, end, heights[row]);
+        Arrays.fill(colors, first, end, colors[row]);
+        size = end;
+        return first;
+    }
+
+    /**
+     * Appends copies of rows {@code from} to {@code from + count - 1}, in
+     * order, and returns the first new row.
+     */
+    public int cloneRange(int from, int count) {
+        if (from < 0 || count < 0 || from + count > size) {
+            throw new IndexOutOfBoundsException("Rows " + from + " to " + (from + count) + " of " + size);
+        }
+        ensureCapacity(size + count);
+        int first = size;
+        System.arraycopy(kinds, from, kinds, first, count);
+        System.arraycopy(xs, from, xs, first, count);
+        System.arraycopy(ys, from, ys, first, count);
+        System.arraycopy(widths, from, widths, first, count);
+        System.arraycopy(heights, from, heights, first, count);
+        System.arraycopy(colors, from, colors, first, count);
+        size += count;
+        return first;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Kind getKind(int row) {
+        checkRow(row);
+        return KINDS[kinds[row]];
+    }
+
+    public int getX(int row) {
+        checkRow(row);
+        return xs[row];
+    }
+
+    public int getY(int row) {
+        checkRow(row);
+        return ys[row];
+    }
+
+    public int getWidth(int row) {
+        checkRow(row);
+        return widths[row];
+    }
+
+    public int getHeight(int row) {
+        checkRow(row);
+        return heights[row];
+    }
+
+    public String getColor(int row) {
+        checkRow(row);
+        return colorNames.get(colors[row]);
+    }
+
+    public void setX(int row, int x) {
+        checkRow(row);
+        xs[row] = x;
+    }
+
+    public void setY(int row, int y) {
+        checkRow(row);
+        ys[row] = y;
+    }
+
+    public void moveX(int row, int dx) {
+        checkRow(row);
+        xs[row] += dx;
+    }
+
+    /**
+     * A Shape backed by the row. Views are tiny and cheap to create, and
+     * cloning a view appends a copy of its row to the store.
+     */
+    public Shape view(int row) {
+        checkRow(row);
+        return new ShapeView(this, row);
+    }
+
+    /**
+     * Bytes held by the column arrays, including unused capacity.
+     */
+    public long footprintBytes() {
+        long capacity = kinds.length;
+        return capacity * (Byte.BYTES + 4L * Integer.BYTES + Short.BYTES);
+    }
+
+    // Direct column access for bulk operations such as ShapeTransforms. Only
+    // the first size() entries are in use.
+    byte[] kindColumn() {
+        return kinds;
+    }
+
+    int[] xColumn() {
+        return xs;
+    }
+
+    int[] yColumn() {
+        return ys;
+    }
+
+    int[] widthColumn() {
+        return widths;
+    }
+
+    int[] heightColumn() {
+        return heights;
+    }
+
+    short[] colorColumn() {
+        return colors;
+    }
+
+    /**
+     * The dictionary id of the color, or -1 if no row uses it.
+     */
+    short findColorId(String color) {
+        Short id = colorIds.get(color);
+        return id == null ? -1 : id;
+    }
+
+    private short colorId(String color) {
+        Short id = colorIds.get(color);
+        if (id == null) {
+            if (colorNames.size() > Short.MAX_VALUE) {
+                throw new IllegalStateException("Too many distinct colors");
+            }
+            id = (short) colorNames.size();
+            colorNames.add(color);
+            colorIds.put(color, id);
+        }
+        return id;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= kinds.length) {
+            return;
+        }
+        int capacity = Math.max(required, kinds.length + (kinds.length >> 1));
+        kinds = Arrays.copyOf(kinds, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        widths = Arrays.copyOf(widths, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+        colors = Arrays.copyOf(colors, capacity);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+    }
+
+    private static final class ShapeView implements Shape {
+        private final ShapeStore store;
+        private final int row;
+
+        ShapeView(ShapeStore store, int row) {
+            this.store = store;
+            this.row = row;
+        }
+
+        @Override
+        public Shape clone() {
+            return new ShapeView(store, store.cloneRow(row));
+        }
+
+        @Override
+        public String getInfo() {
+            String color = store.getColor(row);
+            return switch (store.getKind(row)) {
+                case CIRCLE -> "Circle [radius=" + store.getWidth(row) + ", color=" + color + "]";
+                case RECTANGLE -> "Rectangle [width=" + store.getWidth(row) + ", height=" + store.getHeight(row)
+                        + ", color=" + color + "]";
+                case CENTERED -> "Shape [center=Point[x=" + store.getX(row) + ", y=" + store.getY(row)
+                        + "], color=" + color + "]";
+            };
+        }
+    }
+}
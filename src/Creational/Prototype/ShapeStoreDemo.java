@@ -0,0 +1,68 @@
+package Creational.Prototype;
+
+/**
+ * Compares one object per shape with the columnar ShapeStore: heap used per
+ * shape and time to clone a million shapes from a template.
+ */
+public class ShapeStoreDemo {
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        // Objects: DeepShape clones, each with its own Point
+        long before = usedHeap();
+        long begin = System.nanoTime();
+        Shape template = new DeepShape(new Point(3, 4), "Blue");
+        Shape[] objects = new Shape[count];
+        for (int i = 0; i < count; i++) {
+            objects[i] = template.clone();
+        }
+        long objectNanos = System.nanoTime() - begin;
+        long objectBytes = usedHeap() - before;
+
+        // Columns: the same shapes as rows of a ShapeStore
+        before = usedHeap();
+        begin = System.nanoTime();
+        ShapeStore store = new ShapeStore(count + 1);
+        int row = store.addCentered(3, 4, "Blue");
+        store.cloneN(row, count);
+        long storeNanos = System.nanoTime() - begin;
+        long storeBytes = usedHeap() - before;
+
+        System.out.printf("%,d shapes%n", count);
+        System.out.printf("Objects:     %6.1f bytes/shape, cloned in %5d ms%n",
+                objectBytes / (double) count, objectNanos / 1_000_000);
+        System.out.printf("ShapeStore:  %6.1f bytes/shape, cloned in %5d ms%n",
+                storeBytes / (double) count, storeNanos / 1_000_000);
+        System.out.println("Views work as shapes: " + store.view(count).getInfo());
+
+        // One simulation tick: move every shape, then only the red ones
+        int bits = ShapeTransforms.getVectorBits();
+        System.out.println(bits > 0 ? "Transform kernel: Vector API, " + bits + "-bit vectors"
+                : "Transform kernel: scalar loops (run with --add-modules jdk.incubator.vector for the Vector API)");
+        store.addCentered(0, 0, "Red");
+        for (int tick = 0; tick < 20; tick++) {
+            ShapeTransforms.translate(store, 1, 1);
+        }
+        begin = System.nanoTime();
+        ShapeTransforms.translate(store, 1, -1);
+        long translateNanos = System.nanoTime() - begin;
+        ShapeTransforms.translate(store, 5, 5, "Red");
+        System.out.printf("Translating all rows took %.2f ms (%.2f ns/shape)%n",
+                translateNanos / 1e6, translateNanos / (double) store.size());
+        System.out.println("After moving: " + store.view(0).getInfo() + ", red one: "
+                + store.view(store.size() - 1).getInfo());
+
+        // Keep both alive until they have been measured
+        if (objects[count - 1] == null || store.size() == 0) {
+            System.out.println("unreachable");
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,290 @@
+package Creational.Prototype;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+
+/**
+ * Bulk transforms that move or scale whole collections of shapes at once.
+ *
+ * The {@link ShapeStore} overloads run tight loops over the primitive
+ * coordinate columns. Filters are applied with a bit mask instead of a
+ * branch, which keeps the loops simple enough for the JIT compiler to turn
+ * into SIMD instructions. Large stores are split into chunks that run in
+ * parallel on the common fork/join pool.
+ *
+ * When the program runs with {@code --add-modules jdk.incubator.vector} and
+ * {@code Creational.Prototype.vector.ShapeKernels} was compiled, the
+ * ShapeStore overloads use its Vector API loops instead, which give the same
+ * results.
+ */
+public final class ShapeTransforms {
+    // Rows per task; smaller chunks cost more in scheduling than they gain
+    static final int CHUNK_SIZE = 1 << 16;
+
+    private static final String VECTOR_KERNELS = "Creational.Prototype.vector.ShapeKernels";
+    // Vector API loops, or null when they cannot be used
+    private static final MethodHandle VECTOR_TRANSLATE;
+    private static final MethodHandle VECTOR_TRANSLATE_KIND;
+    private static final MethodHandle VECTOR_TRANSLATE_COLOR;
+    private static final MethodHandle VECTOR_SCALE;
+    private static final int VECTOR_BITS;
+
+    static {
+        MethodHandle translate = null;
+        MethodHandle translateKind = null;
+        MethodHandle translateColor = null;
+        MethodHandle scale = null;
+        int bits = 0;
+        try {
+            Class<?> kernels = Class.forName(VECTOR_KERNELS);
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            translate = lookup.findStatic(kernels, "translate", MethodType.methodType(void.class, int[].class,
+                    int[].class, int.class, int.class, int.class, int.class));
+            translateKind = lookup.findStatic(kernels, "translateKind", MethodType.methodType(void.class,
+                    int[].class, int[].class, byte[].class, int.class, int.class, int.class, int.class, int.class));
+            translateColor = lookup.findStatic(kernels, "translateColor", MethodType.methodType(void.class,
+                    int[].class, int[].class, short[].class, int.class, int.class, int.class, int.class, int.class));
+            scale = lookup.findStatic(kernels, "scale", MethodType.methodType(void.class, int[].class, int.class,
+                    int.class, double.class));
+            bits = (int) lookup.findStatic(kernels, "vectorBits", MethodType.methodType(int.class)).invokeExact();
+        } catch (Throwable e) {
+            // Not compiled, or jdk.incubator.vector not added: keep the scalar loops
+            translate = null;
+            translateKind = null;
+            translateColor = null;
+            scale = null;
+            bits = 0;
+        }
+        VECTOR_TRANSLATE = translate;
+        VECTOR_TRANSLATE_KIND = translateKind;
+        VECTOR_TRANSLATE_COLOR = translateColor;
+        VECTOR_SCALE = scale;
+        VECTOR_BITS = bits;
+    }
+
+    private ShapeTransforms() {
+    }
+
+    /**
+     * Width of the SIMD vectors used by the ShapeStore overloads, or 0 when
+     * they use the scalar loops.
+     */
+    public static int getVectorBits() {
+        return VECTOR_BITS;
+    }
+
+    public static void translate(ShapeStore store, int dx, int dy) {
+        int[] xs = store.xColumn();
+        int[] ys = store.yColumn();
+        if (VECTOR_TRANSLATE != null) {
+            forEachChunk(store.size(), (from, to) -> vectorTranslate(xs, ys, from, to, dx, dy));
+            return;
+        }
+        forEachChunk(store.size(), (from, to) -> {
+            for (int i = from; i < to; i++) {
+                xs[i] += dx;
+                ys[i] += dy;
+            }
+        });
+    }
+
+    /**
+     * Moves only the shapes of the given kind.
+     */
+    public static void translate(ShapeStore store, int dx, int dy, ShapeStore.Kind kind) {
+        int[] xs = store.xColumn();
+        int[] ys = store.yColumn();
+        byte[] kinds = store.kindColumn();
+        int wanted = kind.ordinal();
+        if (VECTOR_TRANSLATE_KIND != null) {
+            forEachChunk(store.size(), (from, to) -> vectorTranslateKind(xs, ys, kinds, wanted, from, to, dx, dy));
+            return;
+        }
+        forEachChunk(store.size(), (from, to) -> {
+            for (int i = from; i < to; i++) {
+                // All ones when the kind matches, zero otherwise
+                int mask = ((kinds[i] ^ wanted) - 1) >> 31;
+                xs[i] += dx & mask;
+                ys[i] += dy & mask;
+            }
+        });
+    }
+
+    /**
+     * Moves only the shapes of the given color.
+     */
+    public static void translate(ShapeStore store, int dx, int dy, String color) {
+        int wanted = store.findColorId(color);
+        if (wanted < 0) {
+            return;
+        }
+        int[] xs = store.xColumn();
+        int[] ys = store.yColumn();
+        short[] colors = store.colorColumn();
+        if (VECTOR_TRANSLATE_COLOR != null) {
+            forEachChunk(store.size(), (from, to) -> vectorTranslateColor(xs, ys, colors, wanted, from, to, dx,
+                    dy));
+            return;
+        }
+        forEachChunk(store.size(), (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int mask = ((colors[i] ^ wanted) - 1) >> 31;
+                xs[i] += dx & mask;
+                ys[i] += dy & mask;
+            }
+        });
+    }
+
+    /**
+     * Scales positions and sizes of all shapes around the origin, rounding to
+     * the nearest integer.
+     */
+    public static void scale(ShapeStore store, double factor) {
+        int[][] columns = { store.xColumn(), store.yColumn(), store.widthColumn(), store.heightColumn() };
+        if (VECTOR_SCALE != null) {
+            forEachChunk(store.size(), (from, to) -> {
+                for (int[] column : columns) {
+                    vectorScale(column, from, to, factor);
+                }
+            });
+            return;
+        }
+        forEachChunk(store.size(), (from, to) -> {
+            for (int[] column : columns) {
+                for (int i = from; i < to; i++) {
+                    column[i] = (int) Math.round(column[i] * factor);
+                }
+            }
+        });
+    }
+
+    // The handles are constants, so the JIT compiler inlines the Vector API loops
+    private static void vectorTranslate(int[] xs, int[] ys, int from, int to, int dx, int dy) {
+        try {
+            VECTOR_TRANSLATE.invokeExact(xs, ys, from, to, dx, dy);
+        } catch (Throwable e) {
+            throw propagate(e);
+        }
+    }
+
+    private static void vectorTranslateKind(int[] xs, int[] ys, byte[] kinds, int wanted, int from, int to, int dx,
+            int dy) {
+        try {
+            VECTOR_TRANSLATE_KIND.invokeExact(xs, ys, kinds, wanted, from, to, dx, dy);
+        } catch (Throwable e) {
+            throw propagate(e);
+        }
+    }
+
+    private static void vectorTranslateColor(int[] xs, int[] ys, short[] colors, int wanted, int from, int to,
+            int dx, int dy) {
+        try {
+            VECTOR_TRANSLATE_COLOR.invokeExact(xs, ys, colors, wanted, from, to, dx, dy);
+        } catch (Throwable e) {
+            throw propagate(e);
+        }
+    }
+
+    private static void vectorScale(int[] column, int from, int to, double factor) {
+        try {
+            VECTOR_SCALE.invokeExact(column, from, to, factor);
+        } catch (Throwable e) {
+            throw propagate(e);
+        }
+    }
+
+    private static RuntimeException propagate(Throwable e) {
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return e instanceof RuntimeException ? (RuntimeException) e : new IllegalStateException(e);
+    }
+
+    /**
+     * Moves every shape in the list. Shallow clones that share a Point are
+     * moved once per clone, so the Point moves by dx, dy times the number of
+     * clones in the list.
+     */
+    public static <T extends Movable> void translate(List<T> shapes, int dx, int dy) {
+        translate(shapes, dx, dy, shape -> true);
+    }
+
+    /**
+     * Moves the shapes in the list that match the filter. The list must
+     * support fast random access, and the filter must be thread-safe.
+     *
+     * Large lists are moved in parallel unless a shape {@linkplain
+     * Movable#sharesState() shares state} with others: two threads moving
+     * clones of the same Point would lose each other's updates, so such
+     * lists are moved on the calling thread.
+     */
+    public static <T extends Movable> void translate(List<T> shapes, int dx, int dy, Predicate<? super T> filter) {
+        RangeAction move = (from, to) -> {
+            for (int i = from; i < to; i++) {
+                T shape = shapes.get(i);
+                if (filter.test(shape)) {
+                    shape.moveBy(dx, dy);
+                }
+            }
+        };
+        if (anySharesState(shapes)) {
+            move.apply(0, shapes.size());
+        } else {
+            forEachChunk(shapes.size(), move);
+        }
+    }
+
+    private static boolean anySharesState(List<? extends Movable> shapes) {
+        if (shapes.size() <= CHUNK_SIZE) {
+            // Runs on one thread anyway
+            return false;
+        }
+        for (int i = 0; i < shapes.size(); i++) {
+            if (shapes.get(i).sharesState()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private interface RangeAction {
+        void apply(int from, int to);
+    }
+
+    private static void forEachChunk(int size, RangeAction action) {
+        if (size <= CHUNK_SIZE) {
+            action.apply(0, size);
+        } else {
+            ForkJoinPool.commonPool().invoke(new ChunkTask(action, 0, size));
+        }
+    }
+
+    private static final class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final RangeAction action;
+        private final int from;
+        private final int to;
+
+        ChunkTask(RangeAction action, int from, int to) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                action.apply(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkTask(action, from, middle), new ChunkTask(action, middle, to));
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package Creational.Prototype;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Finds shapes by the position of their center without scanning all of them.
+ *
+ * The index is a uniform grid of square cells over a fixed area. Each cell
+ * holds the entries whose center lies in it. Points outside the area are kept
+ * in the nearest edge cell, so they are still found, just less efficiently.
+ *
+ * The index listens to the points it holds: moving a point with
+ * {@code setX}/{@code setY} (and so {@code moveX}) moves its entry to the new
+ * cell. Queries may run on many threads at once while a single thread adds,
+ * removes or moves points.
+ *
+ * @param <T> the value stored with each point, usually the shape itself
+ */
+public class SpatialIndex<T> {
+    private final int minX;
+    private final int minY;
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+    private final Entry<T>[][] cells;
+    private final int[] cellCounts;
+    private final StampedLock lock = new StampedLock();
+    private int size;
+
+    // One indexed point. Also the point's listener, which links a point back
+    // to its entry without a separate map.
+    private static final class Entry<T> implements Point.MoveListener {
+        final SpatialIndex<T> index;
+        final Point point;
+        final T value;
+        // Copies of the coordinates, only changed under the write lock
+        int x;
+        int y;
+        int cell;
+        int slot;
+
+        Entry(SpatialIndex<T> index, Point point, T value) {
+            this.index = index;
+            this.point = point;
+            this.value = value;
+        }
+
+        @Override
+        public void moved(Point point, int oldX, int oldY) {
+            index.move(this);
+        }
+    }
+
+    /**
+     * Creates an index covering {@code [minX, maxX] x [minY, maxY]}. Cells
+     * roughly the size of a typical query keep queries fast.
+     */
+    public SpatialIndex(int minX, int minY, int maxX, int maxY, int cellSize) {
+        if (maxX < minX || maxY < minY || cellSize <= 0) {
+            throw new IllegalArgumentException("Invalid index area or cell size");
+        }
+        this.minX = minX;
+        this.minY = minY;
+        this.cellSize = cellSize;
+        this.columns = (int) (((long) maxX - minX) / cellSize + 1);
+        this.rows = (int) (((long) maxY - minY) / cellSize + 1);
+        if ((long) columns * rows > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many cells, use a larger cell size");
+        }
+        @SuppressWarnings("unchecked")
+        Entry<T>[][] cells = (Entry<T>[][]) new Entry<?>[columns * rows][];
+        this.cells = cells;
+        this.cellCounts = new int[columns * rows];
+    }
+
+    /**
+     * Adds a point with its value. A point can belong to one index at a time.
+     */
+    public void add(Point point, T value) {
+        if (point.getListener() != null) {
+            throw new IllegalStateException("Point is already indexed: " + point);
+        }
+        Entry<T> entry = new Entry<>(this, point, value);
+        long stamp = lock.writeLock();
+        try {
+            entry.x = point.getX();
+            entry.y = point.getY();
+            insert(entry, cellOf(entry.x, entry.y));
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        point.setListener(entry);
+    }
+
+    /**
+     * Removes the point. Returns false if it is not in this index.
+     */
+    public boolean remove(Point point) {
+        if (!(point.getListener() instanceof Entry) || ((Entry<?>) point.getListener()).index != this) {
+            return false;
+        }
+        @SuppressWarnings("unchecked")
+        Entry<T> entry = (Entry<T>) point.getListener();
+        long stamp = lock.writeLock();
+        try {
+            delete(entry);
+            size--;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        point.setListener(null);
+        return true;
+    }
+
+    private void move(Entry<T> entry) {
+        long stamp = lock.writeLock();
+        try {
+            entry.x = entry.point.getX();
+            entry.y = entry.point.getY();
+            int cell = cellOf(entry.x, entry.y);
+            if (cell != entry.cell) {
+                delete(entry);
+                insert(entry, cell);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Values of all points inside the rectangle, edges included.
+     */
+    public List<T> queryRange(int left, int top, int right, int bottom) {
+        List<T> result = new ArrayList<>();
+        long stamp = lock.readLock();
+        try {
+            for (int row = rowOf(top); row <= rowOf(bottom); row++) {
+                for (int column = columnOf(left); column <= columnOf(right); column++) {
+                    int cell = row * columns + column;
+                    Entry<T>[] entries = cells[cell];
+                    for (int i = 0; i < cellCounts[cell]; i++) {
+                        Entry<T> entry = entries[i];
+                        if (entry.x >= left && entry.x <= right && entry.y >= top && entry.y <= bottom) {
+                            result.add(entry.value);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return result;
+    }
+
+    /**
+     * Values of all points at most {@code radius} away from (x, y).
+     */
+    public List<T> queryRadius(int x, int y, int radius) {
+        List<T> result = new ArrayList<>();
+        long maxDistance = (long) radius * radius;
+        long stamp = lock.readLock();
+        try {
+            for (int row = rowOf(y - radius); row <= rowOf(y + radius); row++) {
+                for (int column = columnOf(x - radius); column <= columnOf(x + radius); column++) {
+                    int cell = row * columns + column;
+                    Entry<T>[] entries = cells[cell];
+                    for (int i = 0; i < cellCounts[cell]; i++) {
+                        Entry<T> entry = entries[i];
+                        if (distanceSquared(entry, x, y) <= maxDistance) {
+                            result.add(entry.value);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return result;
+    }
+
+    /**
+     * Values of the {@code k} points closest to (x, y), nearest first.
+     */
+    public List<T> nearest(int x, int y, int k) {
+        if (k <= 0) {
+            return new ArrayList<>();
+        }
+        // Farthest candidate on top, so it is the one replaced
+        PriorityQueue<Entry<T>> best = new PriorityQueue<>(k,
+                (a, b) -> Long.compare(distanceSquared(b, x, y), distanceSquared(a, x, y)));
+        long stamp = lock.readLock();
+        try {
+            int centerColumn = columnOf(x);
+            int centerRow = rowOf(y);
+            // Search rings of cells around the cell of (x, y), growing outwards
+            for (int ring = 0; ; ring++) {
+                int firstColumn = centerColumn - ring;
+                int lastColumn = centerColumn + ring;
+                int firstRow = centerRow - ring;
+                int lastRow = centerRow + ring;
+                for (int row = Math.max(firstRow, 0); row <= Math.min(lastRow, rows - 1); row++) {
+                    boolean edgeRow = row == firstRow || row == lastRow;
+                    for (int column = Math.max(firstColumn, 0); column <= Math.min(lastColumn, columns - 1);
+                            column++) {
+                        if (edgeRow || column == firstColumn || column == lastColumn) {
+                            collectNearest(row * columns + column, x, y, k, best);
+                        }
+                    }
+                }
+                // Points not searched yet lie outside the searched block of
+                // cells. Stop when none of them can be closer than the
+                // current k-th candidate, or when no cells are left.
+                long bound = Long.MAX_VALUE;
+                if (firstColumn > 0) {
+                    bound = Math.min(bound, (long) x - (minX + (long) firstColumn * cellSize));
+                }
+                if (lastColumn < columns - 1) {
+                    bound = Math.min(bound, minX + (long) (lastColumn + 1) * cellSize - x);
+                }
+                if (firstRow > 0) {
+                    bound = Math.min(bound, (long) y - (minY + (long) firstRow * cellSize));
+                }
+                if (lastRow < rows - 1) {
+                    bound = Math.min(bound, minY + (long) (lastRow + 1) * cellSize - y);
+                }
+                if (bound == Long.MAX_VALUE) {
+                    break;
+                }
+                if (best.size() == k && distanceSquared(best.peek(), x, y) <= bound * bound) {
+                    break;
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        List<T> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            result.add(best.poll().value);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private void collectNearest(int cell, int x, int y, int k, PriorityQueue<Entry<T>> best) {
+        Entry<T>[] entries = cells[cell];
+        for (int i = 0; i < cellCounts[cell]; i++) {
+            Entry<T> entry = entries[i];
+            if (best.size() < k) {
+                best.add(entry);
+            } else if (distanceSquared(entry, x, y) < distanceSquared(best.peek(), x, y)) {
+                best.poll();
+                best.add(entry);
+            }
+        }
+    }
+
+    private static long distanceSquared(Entry<?> entry, int x, int y) {
+        long dx = (long) entry.x - x;
+        long dy = (long) entry.y - y;
+        return dx * dx + dy * dy;
+    }
+
+    private int columnOf(long x) {
+        long column = Math.floorDiv(x - minX, cellSize);
+        return (int) Math.max(0, Math.min(columns - 1, column));
+    }
+
+    private int rowOf(long y) {
+        long row = Math.floorDiv(y - minY, cellSize);
+        return (int) Math.max(0, Math.min(rows - 1, row));
+    }
+
+    private int cellOf(int x, int y) {
+        return rowOf(y) * columns + columnOf(x);
+    }
+
+    private void insert(Entry<T> entry, int cell) {
+        Entry<T>[] entries = cells[cell];
+        int count = cellCounts[cell];
+        if (entries == null) {
+            entries = newEntries(4);
+            cells[cell] = entries;
+        } else if (count == entries.length) {
+            Entry<T>[] grown = newEntries(count * 2);
+            System.arraycopy(entries, 0, grown, 0, count);
+            entries = grown;
+            cells[cell] = entries;
+        }
+        entries[count] = entry;
+        entry.cell = cell;
+        entry.slot = count;
+        cellCounts[cell] = count + 1;
+    }
+
+    // Fills the gap with the last entry of the cell, so removal is O(1)
+    private void delete(Entry<T> entry) {
+        Entry<T>[] entries = cells[entry.cell];
+        int last = --cellCounts[entry.cell];
+        Entry<T> moved = entries[last];
+        entries[entry.slot] = moved;
+        moved.slot = entry.slot;
+        entries[last] = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Entry<T>[] newEntries(int length) {
+        return (Entry<T>[]) new Entry<?>[length];
+    }
+}
@@ -0,0 +1,87 @@
+package Creational.Prototype;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hit-testing a million shapes: index queries compared with a full scan,
+ * shapes moving while other threads query the index.
+ */
+public class SpatialIndexDemo {
+    private static final int WORLD_SIZE = 100_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(42);
+        DeepShape[] shapes = new DeepShape[count];
+        SpatialIndex<DeepShape> index = new SpatialIndex<>(0, 0, WORLD_SIZE, WORLD_SIZE, 500);
+        for (int i = 0; i < count; i++) {
+            shapes[i] = new DeepShape(new Point(random.nextInt(WORLD_SIZE), random.nextInt(WORLD_SIZE)), "Blue");
+            index.add(shapes[i].getCenter(), shapes[i]);
+        }
+        System.out.println("Indexed " + index.size() + " shapes");
+
+        // A 1000 x 1000 viewport, found by the index and by scanning
+        long begin = System.nanoTime();
+        List<DeepShape> visible = index.queryRange(40_000, 40_000, 41_000, 41_000);
+        long indexNanos = System.nanoTime() - begin;
+        begin = System.nanoTime();
+        int scanned = 0;
+        for (DeepShape shape : shapes) {
+            Point center = shape.getCenter();
+            if (center.getX() >= 40_000 && center.getX() <= 41_000
+                    && center.getY() >= 40_000 && center.getY() <= 41_000) {
+                scanned++;
+            }
+        }
+        long scanNanos = System.nanoTime() - begin;
+        System.out.printf("Viewport: index found %d in %.3f ms, scan found %d in %.3f ms%n",
+                visible.size(), indexNanos / 1e6, scanned, scanNanos / 1e6);
+
+        System.out.println("Within 300 of (50000, 50000): " + index.queryRadius(50_000, 50_000, 300).size());
+        List<DeepShape> nearest = index.nearest(12_345, 67_890, 3);
+        System.out.println("3 nearest to (12345, 67890):");
+        for (DeepShape shape : nearest) {
+            System.out.println("  " + shape.getInfo());
+        }
+
+        // Moving a shape updates the index
+        DeepShape mover = shapes[0];
+        mover.getCenter().setX(99_999);
+        mover.getCenter().setY(99_999);
+        System.out.println("After moving, nearest to the corner: "
+                + index.nearest(WORLD_SIZE, WORLD_SIZE, 1).get(0).getInfo());
+
+        // One writer moves shapes while readers hit-test
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong queries = new AtomicLong();
+        Thread[] readers = new Thread[Math.max(1, Runtime.getRuntime().availableProcessors() - 1)];
+        for (int r = 0; r < readers.length; r++) {
+            int seed = r;
+            readers[r] = new Thread(() -> {
+                Random local = new Random(seed);
+                while (running.get()) {
+                    index.queryRadius(local.nextInt(WORLD_SIZE), local.nextInt(WORLD_SIZE), 200);
+                    queries.incrementAndGet();
+                }
+            });
+            readers[r].start();
+        }
+        begin = System.nanoTime();
+        long deadline = begin + 1_000_000_000L;
+        int moves = 0;
+        while (System.nanoTime() < deadline) {
+            shapes[random.nextInt(count)].moveX(random.nextInt(101) - 50);
+            moves++;
+        }
+        long moveNanos = System.nanoTime() - begin;
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        System.out.printf("%d moves in %.1f ms while readers ran %d queries, still %d shapes indexed%n",
+                moves, moveNanos / 1e6, queries.get(), index.size());
+    }
+}
@@ -0,0 +1,138 @@
+package Creational.Prototype.vector;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The ShapeStore column loops of {@code ShapeTransforms}, written with the
+ * incubating Vector API.
+ *
+ * Needs {@code --add-modules jdk.incubator.vector} to compile and to run.
+ * {@code ShapeTransforms} loads this class if it can and otherwise falls back
+ * to its scalar loops. Every loop computes exactly what the scalar loop does,
+ * including the rounding of {@code scale}.
+ */
+public final class ShapeKernels {
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Short> SHORTS = ShortVector.SPECIES_PREFERRED;
+    // scale widens ints to doubles, so it loads half a vector of ints at a time
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> HALF_INTS = IntVector.SPECIES_PREFERRED
+            .withShape(VectorShape.forBitSize(Math.max(64, DOUBLES.vectorBitSize() / 2)));
+    // Half vectors under 128 bits are not compiled to SIMD instructions, and
+    // emulating them is far slower than the scalar loop
+    private static final boolean VECTOR_SCALE = DOUBLES.vectorBitSize() >= 256;
+
+    // Bit layout of a double, as used by Math.round
+    private static final long EXPONENT_BITS = 0x7FF0_0000_0000_0000L;
+    private static final long SIGNIFICAND_BITS = 0x000F_FFFF_FFFF_FFFFL;
+
+    private ShapeKernels() {
+    }
+
+    /**
+     * Bits per vector, for reporting which kernel is in use.
+     */
+    public static int vectorBits() {
+        return INTS.vectorBitSize();
+    }
+
+    public static void translate(int[] xs, int[] ys, int from, int to, int dx, int dy) {
+        int i = from;
+        for (int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length()) {
+            IntVector.fromArray(INTS, xs, i).add(dx).intoArray(xs, i);
+            IntVector.fromArray(INTS, ys, i).add(dy).intoArray(ys, i);
+        }
+        for (; i < to; i++) {
+            xs[i] += dx;
+            ys[i] += dy;
+        }
+    }
+
+    // Moves the rows whose kind is wanted. A byte vector holds four int
+    // vectors' worth of kinds, widened one quarter at a time
+    public static void translateKind(int[] xs, int[] ys, byte[] kinds, int wanted, int from, int to, int dx,
+            int dy) {
+        int i = from;
+        for (int bound = from + BYTES.loopBound(to - from); i < bound; i += BYTES.length()) {
+            ByteVector block = ByteVector.fromArray(BYTES, kinds, i);
+            for (int part = 0; part < 4; part++) {
+                IntVector kind = (IntVector) block.convertShape(VectorOperators.B2I, INTS, part);
+                add(xs, ys, i + part * INTS.length(), kind.eq(wanted), dx, dy);
+            }
+        }
+        for (; i < to; i++) {
+            int mask = ((kinds[i] ^ wanted) - 1) >> 31;
+            xs[i] += dx & mask;
+            ys[i] += dy & mask;
+        }
+    }
+
+    public static void translateColor(int[] xs, int[] ys, short[] colors, int wanted, int from, int to, int dx,
+            int dy) {
+        int i = from;
+        for (int bound = from + SHORTS.loopBound(to - from); i < bound; i += SHORTS.length()) {
+            ShortVector block = ShortVector.fromArray(SHORTS, colors, i);
+            for (int part = 0; part < 2; part++) {
+                IntVector color = (IntVector) block.convertShape(VectorOperators.S2I, INTS, part);
+                add(xs, ys, i + part * INTS.length(), color.eq(wanted), dx, dy);
+            }
+        }
+        for (; i < to; i++) {
+            int mask = ((colors[i] ^ wanted) - 1) >> 31;
+            xs[i] += dx & mask;
+            ys[i] += dy & mask;
+        }
+    }
+
+    private static void add(int[] xs, int[] ys, int i, VectorMask<Integer> mask, int dx, int dy) {
+        IntVector.fromArray(INTS, xs, i).lanewise(VectorOperators.ADD, dx, mask).intoArray(xs, i);
+        IntVector.fromArray(INTS, ys, i).lanewise(VectorOperators.ADD, dy, mask).intoArray(ys, i);
+    }
+
+    // column[i] = (int) Math.round(column[i] * factor)
+    public static void scale(int[] column, int from, int to, double factor) {
+        int i = from;
+        int bound = VECTOR_SCALE ? from + HALF_INTS.loopBound(to - from) : from;
+        for (; i < bound; i += HALF_INTS.length()) {
+            DoubleVector scaled = ((DoubleVector) IntVector.fromArray(HALF_INTS, column, i)
+                    .convertShape(VectorOperators.I2D, DOUBLES, 0)).mul(factor);
+            ((IntVector) round(scaled).convertShape(VectorOperators.L2I, HALF_INTS, 0)).intoArray(column, i);
+        }
+        for (; i < to; i++) {
+            column[i] = (int) Math.round(column[i] * factor);
+        }
+    }
+
+    // Math.round, lane by lane, following the JDK's bit-level implementation.
+    // Its fallback, the (long) cast, is spelled out too: a vector D2L cast is
+    // not compiled to SIMD instructions on every JDK 17 platform
+    private static LongVector round(DoubleVector values) {
+        LongVector bits = values.viewAsIntegralLanes().reinterpretAsLongs();
+        LongVector shift = bits.and(EXPONENT_BITS).lanewise(VectorOperators.LSHR, 52).neg().add(51 + 1023);
+        VectorMask<Long> negative = bits.lt(0);
+        LongVector significand = bits.and(SIGNIFICAND_BITS).or(SIGNIFICAND_BITS + 1);
+        significand = significand.blend(significand.neg(), negative);
+        // 0 <= shift < 64: a finite value with a fraction
+        LongVector result = significand.lanewise(VectorOperators.ASHR, shift).add(1)
+                .lanewise(VectorOperators.ASHR, 1);
+        // -11 <= shift < 0: an integer that fits in a long, significand * 2^(-shift - 1)
+        result = result.blend(significand.lanewise(VectorOperators.LSHL, shift.not()), shift.lt(0));
+        // shift < -11: too large for a long, or infinite, so the cast saturates
+        LongVector saturated = LongVector.broadcast(LONGS, Long.MAX_VALUE).blend(Long.MIN_VALUE, negative);
+        result = result.blend(saturated, shift.lt(-11));
+        // shift >= 64 (zero and values below 2^-54) and NaN round to 0
+        VectorMask<Long> zero = shift.compare(VectorOperators.GE, 64)
+                .or(values.test(VectorOperators.IS_NAN).cast(LONGS));
+        return result.blend(0, zero);
+    }
+}
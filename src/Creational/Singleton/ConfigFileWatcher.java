@@ -0,0 +1,180 @@
+package Creational.Singleton;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the {@link Singleton} configuration in sync with a properties file.
+ *
+ * The file is loaded once on {@link #start()} and then watched with a
+ * {@link WatchService}. Changes are re-parsed on a background thread and
+ * published as one atomic update that contains only the keys whose values
+ * changed, so readers never pause. Editors that save a file several times in
+ * a row are coalesced: a reload waits until the file has been quiet for the
+ * quiet period.
+ *
+ * Properties must name keys defined with {@link ConfigKey#of}; unknown names
+ * and invalid values are reported and skipped. A key removed from the file
+ * goes back to its default value.
+ */
+public class ConfigFileWatcher implements Closeable {
+    public static final long DEFAULT_QUIET_PERIOD_MILLIS = 250;
+
+    private final Singleton config;
+    private final Path file;
+    private final long quietPeriodMillis;
+    private final WatchService watchService;
+    private final Thread watcher;
+    // Keys whose value came from the file at the last reload
+    private final Set<ConfigKey<?>> fileKeys = new HashSet<>();
+    private final Set<String> reportedUnknownKeys = new HashSet<>();
+    private volatile long reloadCount;
+
+    public ConfigFileWatcher(Singleton config, Path file) throws IOException {
+        this(config, file, DEFAULT_QUIET_PERIOD_MILLIS);
+    }
+
+    public ConfigFileWatcher(Singleton config, Path file, long quietPeriodMillis) throws IOException {
+        this.config = config;
+        this.file = file.toAbsolutePath();
+        this.quietPeriodMillis = quietPeriodMillis;
+        this.watchService = this.file.getFileSystem().newWatchService();
+        // Editors often replace the file instead of writing it in place, so
+        // watch the directory for creations as well as modifications
+        this.file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.watcher = new Thread(this::watch, "config-file-watcher");
+        this.watcher.setDaemon(true);
+    }
+
+    /**
+     * Loads the file now, then keeps watching it in the background.
+     */
+    public ConfigFileWatcher start() {
+        reload();
+        watcher.start();
+        return this;
+    }
+
+    /**
+     * Re-reads the file and publishes the keys whose values changed. Returns
+     * the snapshot in effect afterwards.
+     */
+    public synchronized ConfigSnapshot reload() {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            // Keep the current configuration rather than resetting everything
+            System.out.println("(Config) Could not read " + file + ": " + e.getMessage());
+            return config.snapshot();
+        }
+
+        ConfigSnapshot current = config.snapshot();
+        Set<ConfigKey<?>> loadedKeys = new HashSet<>();
+        ConfigSnapshot updated = config.update(changes -> {
+            for (String name : properties.stringPropertyNames()) {
+                ConfigKey<?> key = ConfigKey.forName(name);
+                if (key == null) {
+                    if (reportedUnknownKeys.add(name)) {
+                        System.out.println("(Config) Ignoring unknown key: " + name);
+                    }
+                    continue;
+                }
+                stage(changes, key, properties.getProperty(name), current);
+                loadedKeys.add(key);
+            }
+            for (ConfigKey<?> removed : fileKeys) {
+                if (!loadedKeys.contains(removed)) {
+                    changes.reset(removed);
+                }
+            }
+        });
+        fileKeys.clear();
+        fileKeys.addAll(loadedKeys);
+        reloadCount++;
+        return updated;
+    }
+
+    // Stages the value only if it differs from the current one. An invalid
+    // value keeps the current one.
+    private static <T> void stage(ConfigSnapshot.Builder changes, ConfigKey<T> key, String text,
+            ConfigSnapshot current) {
+        T value;
+        try {
+            value = key.parse(text);
+        } catch (IllegalArgumentException e) {
+            System.out.println("(Config) Invalid value for " + key.getName() + ": " + text);
+            return;
+        }
+        if (!value.equals(current.get(key))) {
+            changes.set(key, value);
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                waitForChange(Long.MAX_VALUE);
+                // Keep waiting while the file is still being written
+                while (waitForChange(quietPeriodMillis)) {
+                    // Coalesce bursts of saves into one reload
+                }
+                reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    // Returns true if the watched file changed within the timeout
+    private boolean waitForChange(long timeoutMillis) throws InterruptedException {
+        long deadline = timeoutMillis == Long.MAX_VALUE ? Long.MAX_VALUE : System.currentTimeMillis() + timeoutMillis;
+        while (true) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            WatchKey key = timeoutMillis == Long.MAX_VALUE
+                    ? watchService.take()
+                    : watchService.poll(remaining, TimeUnit.MILLISECONDS);
+            if (key == null) {
+                return false;
+            }
+            boolean changed = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                        || file.getFileName().equals(event.context())) {
+                    changed = true;
+                }
+            }
+            key.reset();
+            if (changed) {
+                return true;
+            }
+        }
+    }
+
+    public long getReloadCount() {
+        return reloadCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watcher.interrupt();
+        watchService.close();
+    }
+}
@@ -0,0 +1,133 @@
+package Creational.Singleton;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * A typed configuration setting. Each key gets a small integer id, so a
+ * {@link ConfigSnapshot} can store values in an array and look them up by
+ * index.
+ */
+public final class ConfigKey<T> {
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    private static final ConcurrentHashMap<String, ConfigKey<?>> BY_NAME = new ConcurrentHashMap<>();
+
+    private final int id;
+    private final String name;
+    private final Class<T> type;
+    private final T defaultValue;
+    private final Function<String, T> parser;
+
+    private ConfigKey(int id, String name, Class<T> type, T defaultValue, Function<String, T> parser) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+        this.defaultValue = defaultValue;
+        this.parser = parser;
+    }
+
+    /**
+     * Defines a key of type String, Boolean, Integer, Long or Double. Names
+     * are unique: defining the same name twice fails.
+     */
+    public static <T> ConfigKey<T> of(String name, Class<T> type, T defaultValue) {
+        return of(name, type, defaultValue, standardParser(type));
+    }
+
+    /**
+     * Defines a key of any type, with the parser used to read its value from
+     * a configuration file.
+     */
+    public static <T> ConfigKey<T> of(String name, Class<T> type, T defaultValue, Function<String, T> parser) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Key name must not be empty");
+        }
+        if (defaultValue == null || !type.isInstance(defaultValue)) {
+            throw new IllegalArgumentException("Default for " + name + " must be a non-null " + type.getSimpleName());
+        }
+        ConfigKey<T> key = new ConfigKey<>(NEXT_ID.getAndIncrement(), name, type, defaultValue, parser);
+        if (BY_NAME.putIfAbsent(name, key) != null) {
+            throw new IllegalArgumentException("Key already defined: " + name);
+        }
+        return key;
+    }
+
+    private static <T> Function<String, T> standardParser(Class<T> type) {
+        Function<String, ?> parser;
+        if (type == String.class) {
+            parser = Function.identity();
+        } else if (type == Boolean.class) {
+            parser = text -> {
+                if (!text.equalsIgnoreCase("true") && !text.equalsIgnoreCase("false")) {
+                    throw new IllegalArgumentException("Not a boolean: " + text);
+                }
+                return Boolean.valueOf(text);
+            };
+        } else if (type == Integer.class) {
+            parser = Integer::valueOf;
+        } else if (type == Long.class) {
+            parser = Long::valueOf;
+        } else if (type == Double.class) {
+            parser = Double::valueOf;
+        } else {
+            throw new IllegalArgumentException("No standard parser for " + type.getName() + ", pass one explicitly");
+        }
+        return text -> type.cast(parser.apply(text));
+    }
+
+    /**
+     * Looks up a key by name, or returns null if none was defined.
+     */
+    public static ConfigKey<?> forName(String name) {
+        return BY_NAME.get(name);
+    }
+
+    public static Collection<ConfigKey<?>> all() {
+        return Collections.unmodifiableCollection(BY_NAME.values());
+    }
+
+    static int count() {
+        return NEXT_ID.get();
+    }
+
+    int id() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public T getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * Converts the textual form of a value, as found in a configuration file.
+     *
+     * @throws IllegalArgumentException if the text is not a valid value
+     */
+    public T parse(String text) {
+        return checkValue(parser.apply(text.trim()));
+    }
+
+    T checkValue(Object value) {
+        if (value == null || !type.isInstance(value)) {
+            throw new IllegalArgumentException("Value for " + name + " must be a non-null " + type.getSimpleName()
+                    + ": " + value);
+        }
+        return type.cast(value);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,9 @@
+package Creational.Singleton;
+
+/**
+ * Notified after configuration changes. Listeners run on a background thread,
+ * one change at a time and in the order the changes were published.
+ */
+public interface ConfigListener {
+    void onChange(ConfigSnapshot previous, ConfigSnapshot current);
+}
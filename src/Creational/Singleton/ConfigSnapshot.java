@@ -0,0 +1,105 @@
+package Creational.Singleton;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable view of every setting at one point in time. Reading a value is
+ * an array index, and values read from the same snapshot are always
+ * consistent with each other.
+ */
+public final class ConfigSnapshot {
+    static final ConfigSnapshot EMPTY = new ConfigSnapshot(new Object[0], 0);
+
+    // Indexed by ConfigKey id; null means the key has its default value
+    private final Object[] values;
+    private final long version;
+
+    private ConfigSnapshot(Object[] values, long version) {
+        this.values = values;
+        this.version = version;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(ConfigKey<T> key) {
+        int id = key.id();
+        Object value = id < values.length ? values[id] : null;
+        return value == null ? key.getDefaultValue() : (T) value;
+    }
+
+    /**
+     * Increases by one with every published change.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Keys whose value differs between the two snapshots.
+     */
+    public List<ConfigKey<?>> changedKeys(ConfigSnapshot other) {
+        List<ConfigKey<?>> changed = new ArrayList<>();
+        for (ConfigKey<?> key : ConfigKey.all()) {
+            if (!get(key).equals(other.get(key))) {
+                changed.add(key);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Collects changes to apply together as one new snapshot.
+     */
+    public static final class Builder {
+        private final List<ConfigKey<?>> keys = new ArrayList<>();
+        private final List<Object> values = new ArrayList<>();
+
+        Builder() {
+        }
+
+        public <T> Builder set(ConfigKey<T> key, T value) {
+            keys.add(key);
+            values.add(key.checkValue(value));
+            return this;
+        }
+
+        public Builder reset(ConfigKey<?> key) {
+            keys.add(key);
+            values.add(null);
+            return this;
+        }
+
+        boolean isEmpty() {
+            return keys.isEmpty();
+        }
+
+        // Returns the base itself when no value actually changes
+        ConfigSnapshot applyTo(ConfigSnapshot base) {
+            Object[] updated = Arrays.copyOf(base.values, Math.max(base.values.length, ConfigKey.count()));
+            boolean changed = false;
+            for (int i = 0; i < keys.size(); i++) {
+                ConfigKey<?> key = keys.get(i);
+                Object value = values.get(i);
+                if (value != null && value.equals(key.getDefaultValue())) {
+                    value = null;
+                }
+                Object previous = updated[key.id()];
+                if (value == null ? previous != null : !value.equals(previous)) {
+                    updated[key.id()] = value;
+                    changed = true;
+                }
+            }
+            return changed ? new ConfigSnapshot(updated, base.version + 1) : base;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("ConfigSnapshot [version=").append(version);
+        for (ConfigKey<?> key : ConfigKey.all()) {
+            text.append(", ").append(key.getName()).append('=').append(get(key));
+        }
+        return text.append(']').toString();
+    }
+}
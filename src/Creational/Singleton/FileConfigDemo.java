@@ -0,0 +1,43 @@
+package Creational.Singleton;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Demonstrates hot reloading: the configuration follows a properties file,
+ * and a burst of saves results in a single reload.
+ */
+public class FileConfigDemo {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("config-demo");
+        Path file = directory.resolve("app.properties");
+        Files.write(file, "theme=ocean\ndarkMode=true\n".getBytes(StandardCharsets.UTF_8));
+
+        Singleton config = Singleton.getInstance();
+        LinkedBlockingQueue<String> changes = new LinkedBlockingQueue<>();
+        config.addListener((previous, current) -> changes.add(
+                "version " + current.getVersion() + " changed " + current.changedKeys(previous)));
+
+        try (ConfigFileWatcher watcher = new ConfigFileWatcher(config, file).start()) {
+            System.out.println("Loaded from file: theme=" + config.getTheme() + ", darkMode=" + config.isDarkMode());
+            System.out.println("Listener: " + changes.poll(5, TimeUnit.SECONDS));
+
+            // An editor saving the file several times in a row
+            for (int i = 1; i <= 5; i++) {
+                Files.write(file, ("theme=forest-" + i + "\ndarkMode=true\n").getBytes(StandardCharsets.UTF_8));
+                Thread.sleep(20);
+            }
+
+            System.out.println("\nAfter editing the file:");
+            System.out.println("Listener: " + changes.poll(30, TimeUnit.SECONDS));
+            System.out.println("Theme is now " + config.getTheme() + " after " + watcher.getReloadCount() + " reloads");
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(directory);
+        }
+    }
+}
@@ -1,51 +1,128 @@
 package Creational.Singleton;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
 /**
  * A simple Configuration Manager implementing the Singleton pattern.
  * This class manages application settings that should be consistent throughout
  * the application.
+ *
+ * All settings live in one immutable {@link ConfigSnapshot}. Reads load the
+ * current snapshot from a volatile field and take no lock. Every update builds
+ * a new snapshot and swaps it in atomically, so readers never see a
+ * half-applied change.
  */
 public class Singleton {
-    // The single instance
-    private static Singleton instance;
+    // Built-in configuration keys
+    public static final ConfigKey<String> THEME = ConfigKey.of("theme", String.class, "default");
+    public static final ConfigKey<Boolean> DARK_MODE = ConfigKey.of("darkMode", Boolean.class, false);
+
+    // The JVM initializes the holder class lazily and exactly once, which
+    // makes getInstance() thread-safe without locking
+    private static class Holder {
+        private static final Singleton INSTANCE = new Singleton();
+    }
 
-    // Configuration values
-    private String theme;
-    private boolean darkMode;
+    private volatile ConfigSnapshot snapshot = ConfigSnapshot.EMPTY;
+    // Writers are rare, so they simply take turns
+    private final Object writeLock = new Object();
+    private final List<ConfigListener> listeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService notifier = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "config-listeners");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     /**
      * Private constructor to prevent direct instantiation
      */
     private Singleton() {
-        // Default configuration values
-        theme = "default";
-        darkMode = false;
     }
 
     /**
      * Get the single instance of the configuration manager
      */
     public static Singleton getInstance() {
-        if (instance == null) {
-            instance = new Singleton();
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * The current settings. Read several values from the same snapshot when
+     * they must be consistent with each other.
+     */
+    public ConfigSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public <T> T get(ConfigKey<T> key) {
+        return snapshot.get(key);
+    }
+
+    public <T> void set(ConfigKey<T> key, T value) {
+        update(changes -> changes.set(key, value));
+    }
+
+    /**
+     * Applies several changes as one atomic update: readers see either none or
+     * all of them. Returns the snapshot now in effect.
+     */
+    public ConfigSnapshot update(Consumer<ConfigSnapshot.Builder> changes) {
+        ConfigSnapshot.Builder builder = new ConfigSnapshot.Builder();
+        changes.accept(builder);
+        if (builder.isEmpty()) {
+            return snapshot;
+        }
+        synchronized (writeLock) {
+            ConfigSnapshot previous = snapshot;
+            ConfigSnapshot current = builder.applyTo(previous);
+            if (current != previous) {
+                snapshot = current;
+                // Submitted under the lock, so listeners see changes in order
+                if (!listeners.isEmpty()) {
+                    notifier.execute(() -> notifyListeners(previous, current));
+                }
+            }
+            return current;
+        }
+    }
+
+    public void addListener(ConfigListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ConfigListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void notifyListeners(ConfigSnapshot previous, ConfigSnapshot current) {
+        for (ConfigListener listener : listeners) {
+            try {
+                listener.onChange(previous, current);
+            } catch (RuntimeException e) {
+                // One failing listener must not stop the others
+                e.printStackTrace();
+            }
         }
-        return instance;
     }
 
     // Configuration getters and setters
     public String getTheme() {
-        return theme;
+        return get(THEME);
     }
 
     public void setTheme(String theme) {
-        this.theme = theme;
+        set(THEME, theme);
     }
 
     public boolean isDarkMode() {
-        return darkMode;
+        return get(DARK_MODE);
     }
 
     public void setDarkMode(boolean darkMode) {
-        this.darkMode = darkMode;
+        set(DARK_MODE, darkMode);
     }
 }
\ No newline at end of file
@@ -1,11 +1,13 @@
 package Creational.Singleton;
 
+import java.util.concurrent.CountDownLatch;
+
 /**
  * Main class that demonstrates the Singleton Pattern using a Configuration
  * Manager example.
  */
 public class SingletonMain {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
         // Get the singleton instance
         Singleton config1 = Singleton.getInstance();
 
@@ -30,5 +32,24 @@ public class SingletonMain {
         // Show that the change is reflected in config1
         System.out.println("\n=== After changing theme using config2 ===");
         System.out.println("Theme from config1: " + config1.getTheme());
+
+        // Listeners are told about changes on a background thread
+        CountDownLatch notified = new CountDownLatch(1);
+        config1.addListener((previous, current) -> {
+            System.out.println("Listener: changed " + current.changedKeys(previous) + " in version "
+                    + current.getVersion());
+            notified.countDown();
+        });
+
+        // Change several settings at once; readers see all or none of them
+        config1.update(changes -> changes
+                .set(Singleton.THEME, "solarized")
+                .set(Singleton.DARK_MODE, false));
+        notified.await();
+
+        ConfigSnapshot settings = config2.snapshot();
+        System.out.println("\n=== After a batch update ===");
+        System.out.println("Theme: " + settings.get(Singleton.THEME) + ", dark mode: "
+                + settings.get(Singleton.DARK_MODE));
     }
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package Structural.Adapter;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.Random;
+
+/**
+ * Converts a long temperature series one reading at a time through the
+ * adapter and in bulk, checks that both give exactly the same doubles and
+ * compares their speed. Pass the number of readings as the first argument.
+ *
+ * Run with {@code --add-modules jdk.incubator.vector} to use the Vector API
+ * kernels, without it to use the scalar loops.
+ */
+public class BulkConversionDemo {
+    private static final int ROUNDS = 5;
+
+    // Serves one reading of a series at a time, like a live metric service
+    private static class SeriesService extends MetricWeatherService {
+        private final double[] series;
+        private int index;
+
+        SeriesService(double[] series) {
+            this.series = series;
+        }
+
+        @Override
+        public double getTemperature() {
+            return series[index];
+        }
+
+        @Override
+        public double getWindSpeed() {
+            return series[index];
+        }
+    }
+
+    // Values whose conversion is easy to get wrong
+    private static final double[] SPECIAL = { Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+            0.0, -0.0, Double.MIN_VALUE, -Double.MIN_VALUE, Double.MIN_NORMAL, Double.MAX_VALUE, -Double.MAX_VALUE };
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        double[] celsius = new double[count];
+        Random random = new Random(42);
+        for (int i = 0; i < count; i++) {
+            celsius[i] = random.nextGaussian() * 15 + 10;
+        }
+        System.arraycopy(SPECIAL, 0, celsius, 0, Math.min(SPECIAL.length, count));
+        int bits = ImperialWeatherAdapter.getVectorBits();
+        System.out.println(bits > 0 ? "Bulk kernel: Vector API, " + bits + "-bit vectors"
+                : "Bulk kernel: scalar loops (run with --add-modules jdk.incubator.vector for the Vector API)");
+        SeriesService series = new SeriesService(celsius);
+        ImperialWeatherAdapter adapter = new ImperialWeatherAdapter(series);
+
+        double[] oneByOne = new double[count];
+        double[] bulk = new double[count];
+        for (int round = 1; round <= ROUNDS; round++) {
+            long begin = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                series.index = i;
+                oneByOne[i] = adapter.getTemperature();
+            }
+            long singleNanos = System.nanoTime() - begin;
+            begin = System.nanoTime();
+            adapter.convertTemperatures(celsius, 0, bulk, 0, count);
+            long bulkNanos = System.nanoTime() - begin;
+            System.out.printf("Round %d: one by one %.2f ns/value, bulk %.2f ns/value (%.1fx)%n", round,
+                    singleNanos / (double) count, bulkNanos / (double) count, singleNanos / (double) bulkNanos);
+        }
+
+        // The same series through a direct buffer, converted in place
+        DoubleBuffer direct = ByteBuffer.allocateDirect(count * Double.BYTES).order(ByteOrder.nativeOrder())
+                .asDoubleBuffer();
+        direct.put(celsius).flip();
+        adapter.convertTemperatures(direct);
+        double[] fromBuffer = new double[count];
+        direct.get(fromBuffer);
+
+        // And wind speeds, which use the other kernel
+        double[] mph = new double[count];
+        adapter.convertWindSpeeds(celsius, 0, mph, 0, count);
+
+        boolean identical = true;
+        for (int i = 0; i < count; i++) {
+            long expected = Double.doubleToRawLongBits(oneByOne[i]);
+            identical &= expected == Double.doubleToRawLongBits(bulk[i])
+                    && expected == Double.doubleToRawLongBits(fromBuffer[i]);
+            series.index = i;
+            identical &= Double.doubleToRawLongBits(adapter.getWindSpeed()) == Double.doubleToRawLongBits(mph[i]);
+        }
+        System.out.println(identical ? "OK: bulk results match the single-value path bit for bit"
+                : "FAILED: bulk results differ from the single-value path");
+    }
+}
@@ -1,6 +1,65 @@
 package Structural.Adapter;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.BufferOverflowException;
+import java.nio.DoubleBuffer;
+import java.util.stream.IntStream;
+
+/**
+ * Adapts the metric weather service to imperial units.
+ *
+ * Besides single readings, whole series can be converted in bulk: arrays or
+ * DoubleBuffer ranges, into a destination or in place. The bulk methods use
+ * the same expressions as the single-value getters, so every value converts to
+ * exactly the same double. Large series are split across cores.
+ *
+ * When the program runs with {@code --add-modules jdk.incubator.vector} and
+ * {@code Structural.Adapter.vector.VectorKernels} was compiled, the bulk
+ * methods use its Vector API loops. Otherwise they use plain loops, which the
+ * JIT compiler may still turn into SIMD instructions.
+ */
 public class ImperialWeatherAdapter implements WeatherService {
+    // Below this many values, splitting the work across cores costs more than it saves
+    static final int PARALLEL_THRESHOLD = 1 << 18;
+    // Values per chunk when converting buffers without an accessible array
+    private static final int BUFFER_CHUNK = 4096;
+
+    private static final String VECTOR_KERNELS = "Structural.Adapter.vector.VectorKernels";
+    // Vector API loops, or null when they cannot be used
+    private static final MethodHandle VECTOR_FAHRENHEIT;
+    private static final MethodHandle VECTOR_MILES;
+    private static final int VECTOR_BITS;
+
+    static {
+        MethodHandle fahrenheit = null;
+        MethodHandle miles = null;
+        int bits = 0;
+        try {
+            Class<?> kernels = Class.forName(VECTOR_KERNELS);
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            MethodType type = MethodType.methodType(void.class, double[].class, int.class, double[].class,
+                    int.class, int.class);
+            fahrenheit = lookup.findStatic(kernels, "fahrenheit", type);
+            miles = lookup.findStatic(kernels, "miles", type);
+            bits = (int) lookup.findStatic(kernels, "vectorBits", MethodType.methodType(int.class)).invokeExact();
+        } catch (Throwable e) {
+            // Not compiled, or jdk.incubator.vector not added: keep the scalar loops
+            fahrenheit = null;
+            miles = null;
+            bits = 0;
+        }
+        VECTOR_FAHRENHEIT = fahrenheit;
+        VECTOR_MILES = miles;
+        VECTOR_BITS = bits;
+    }
+
+    private static final Kernel FAHRENHEIT = VECTOR_FAHRENHEIT != null ? ImperialWeatherAdapter::vectorFahrenheit
+            : ImperialWeatherAdapter::fahrenheit;
+    private static final Kernel MILES = VECTOR_MILES != null ? ImperialWeatherAdapter::vectorMiles
+            : ImperialWeatherAdapter::miles;
+
     private MetricWeatherService metricService;
 
     public ImperialWeatherAdapter(MetricWeatherService metricService) {
@@ -9,22 +68,214 @@ public class ImperialWeatherAdapter implements WeatherService {
 
     @Override
     public double getTemperature() {
-        // Convert Celsius to Fahrenheit
-        double celsius = metricService.getTemperature();
-        return (celsius * 9/5) + 32;
+        return toFahrenheit(metricService.getTemperature());
     }
 
     @Override
     public double getWindSpeed() {
-        // Convert km/h to mph
-        double kmh = metricService.getWindSpeed();
-        return kmh * 0.621371;
+        return toMiles(metricService.getWindSpeed());
     }
 
     @Override
     public double getDistance() {
-        // Convert kilometers to miles
-        double km = metricService.getDistance();
+        return toMiles(metricService.getDistance());
+    }
+
+    // Convert Celsius to Fahrenheit
+    private static double toFahrenheit(double celsius) {
+        return (celsius * 9/5) + 32;
+    }
+
+    // Convert kilometers (or km/h) to miles (or mph)
+    private static double toMiles(double km) {
         return km * 0.621371;
     }
-}
\ No newline at end of file
+
+    /**
+     * Converts {@code length} temperatures in Celsius, starting at
+     * {@code sourceOffset}, to Fahrenheit in {@code target} starting at
+     * {@code targetOffset}. Source and target may be the same range, but must
+     * not otherwise overlap.
+     */
+    public void convertTemperatures(double[] source, int sourceOffset, double[] target, int targetOffset,
+            int length) {
+        convert(source, sourceOffset, target, targetOffset, length, FAHRENHEIT);
+    }
+
+    public void convertTemperatures(double[] values, int offset, int length) {
+        convertTemperatures(values, offset, values, offset, length);
+    }
+
+    /**
+     * Converts wind speeds from km/h to mph, see
+     * {@link #convertTemperatures(double[], int, double[], int, int)}.
+     */
+    public void convertWindSpeeds(double[] source, int sourceOffset, double[] target, int targetOffset,
+            int length) {
+        convert(source, sourceOffset, target, targetOffset, length, MILES);
+    }
+
+    public void convertWindSpeeds(double[] values, int offset, int length) {
+        convertWindSpeeds(values, offset, values, offset, length);
+    }
+
+    /**
+     * Converts distances from kilometers to miles, see
+     * {@link #convertTemperatures(double[], int, double[], int, int)}.
+     */
+    public void convertDistances(double[] source, int sourceOffset, double[] target, int targetOffset,
+            int length) {
+        convert(source, sourceOffset, target, targetOffset, length, MILES);
+    }
+
+    public void convertDistances(double[] values, int offset, int length) {
+        convertDistances(values, offset, values, offset, length);
+    }
+
+    /**
+     * Converts the remaining temperatures of {@code source} into
+     * {@code target}, advancing both positions like a bulk {@code put}.
+     * Like {@code put}, rejects the same buffer as source and target; use
+     * {@link #convertTemperatures(DoubleBuffer)} to convert in place.
+     */
+    public void convertTemperatures(DoubleBuffer source, DoubleBuffer target) {
+        convert(source, target, FAHRENHEIT);
+    }
+
+    /**
+     * Converts the remaining temperatures of {@code values} in place. The
+     * position is left unchanged.
+     */
+    public void convertTemperatures(DoubleBuffer values) {
+        convertInPlace(values, FAHRENHEIT);
+    }
+
+    public void convertWindSpeeds(DoubleBuffer source, DoubleBuffer target) {
+        convert(source, target, MILES);
+    }
+
+    public void convertWindSpeeds(DoubleBuffer values) {
+        convertInPlace(values, MILES);
+    }
+
+    public void convertDistances(DoubleBuffer source, DoubleBuffer target) {
+        convert(source, target, MILES);
+    }
+
+    public void convertDistances(DoubleBuffer values) {
+        convertInPlace(values, MILES);
+    }
+
+    /**
+     * Width of the SIMD vectors used by the bulk methods, or 0 when they use
+     * the scalar loops.
+     */
+    public static int getVectorBits() {
+        return VECTOR_BITS;
+    }
+
+    private interface Kernel {
+        void apply(double[] source, int sourceOffset, double[] target, int targetOffset, int length);
+    }
+
+    // The handles are constants, so the JIT compiler inlines the Vector API loops
+    private static void vectorFahrenheit(double[] source, int sourceOffset, double[] target, int targetOffset,
+            int length) {
+        try {
+            VECTOR_FAHRENHEIT.invokeExact(source, sourceOffset, target, targetOffset, length);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void vectorMiles(double[] source, int sourceOffset, double[] target, int targetOffset,
+            int length) {
+        try {
+            VECTOR_MILES.invokeExact(source, sourceOffset, target, targetOffset, length);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Scalar fallback, one loop per conversion so each compiles to its own code
+    private static void fahrenheit(double[] source, int sourceOffset, double[] target, int targetOffset,
+            int length) {
+        for (int i = 0; i < length; i++) {
+            target[targetOffset + i] = toFahrenheit(source[sourceOffset + i]);
+        }
+    }
+
+    private static void miles(double[] source, int sourceOffset, double[] target, int targetOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            target[targetOffset + i] = toMiles(source[sourceOffset + i]);
+        }
+    }
+
+    private static void convert(double[] source, int sourceOffset, double[] target, int targetOffset, int length,
+            Kernel kernel) {
+        checkRange(source.length, sourceOffset, length);
+        checkRange(target.length, targetOffset, length);
+        if (length < PARALLEL_THRESHOLD) {
+            kernel.apply(source, sourceOffset, target, targetOffset, length);
+            return;
+        }
+        int chunks = Math.min(Runtime.getRuntime().availableProcessors() * 4, length / (PARALLEL_THRESHOLD / 4));
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int from = (int) ((long) length * chunk / chunks);
+            int to = (int) ((long) length * (chunk + 1) / chunks);
+            kernel.apply(source, sourceOffset + from, target, targetOffset + from, to - from);
+        });
+    }
+
+    private static void convert(DoubleBuffer source, DoubleBuffer target, Kernel kernel) {
+        if (source == target) {
+            // Both positions would advance twice; use the in-place overload
+            throw new IllegalArgumentException("The source buffer is the target buffer");
+        }
+        int length = source.remaining();
+        if (target.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        convertRange(source, source.position(), target, target.position(), length, kernel);
+        source.position(source.position() + length);
+        target.position(target.position() + length);
+    }
+
+    private static void convertInPlace(DoubleBuffer values, Kernel kernel) {
+        convertRange(values, values.position(), values, values.position(), values.remaining(), kernel);
+    }
+
+    private static void convertRange(DoubleBuffer source, int sourceIndex, DoubleBuffer target, int targetIndex,
+            int length, Kernel kernel) {
+        if (source.hasArray() && target.hasArray()) {
+            convert(source.array(), source.arrayOffset() + sourceIndex, target.array(),
+                    target.arrayOffset() + targetIndex, length, kernel);
+            return;
+        }
+        // Direct or read-only buffers: convert through a small array per chunk
+        int chunks = (length + BUFFER_CHUNK - 1) / BUFFER_CHUNK;
+        IntStream range = IntStream.range(0, chunks);
+        if (length >= PARALLEL_THRESHOLD) {
+            range = range.parallel();
+        }
+        range.forEach(chunk -> {
+            int from = chunk * BUFFER_CHUNK;
+            int count = Math.min(BUFFER_CHUNK, length - from);
+            double[] values = new double[count];
+            source.get(sourceIndex + from, values, 0, count);
+            kernel.apply(values, 0, values, 0, count);
+            target.put(targetIndex + from, values, 0, count);
+        });
+    }
+
+    private static void checkRange(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new ArrayIndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + length
+                    + ") out of bounds for length " + arrayLength);
+        }
+    }
+}
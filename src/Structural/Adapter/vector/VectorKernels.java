@@ -0,0 +1,57 @@
+package Structural.Adapter.vector;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Unit conversion loops written with the incubating Vector API, so they use
+ * the widest SIMD registers of the CPU even where the JIT compiler would not
+ * vectorize a plain loop.
+ *
+ * Needs {@code --add-modules jdk.incubator.vector} to compile and to run.
+ * {@code ImperialWeatherAdapter} loads this class if it can and otherwise
+ * falls back to its scalar loops. Each lane performs the same IEEE operations
+ * in the same order as the scalar formula, so results are identical bit for
+ * bit.
+ */
+public final class VectorKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorKernels() {
+    }
+
+    /**
+     * Bits per vector, for reporting which kernel is in use.
+     */
+    public static int vectorBits() {
+        return SPECIES.vectorBitSize();
+    }
+
+    // (celsius * 9/5) + 32, evaluated left to right like the scalar formula
+    public static void fahrenheit(double[] source, int sourceOffset, double[] target, int targetOffset,
+            int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, source, sourceOffset + i)
+                    .mul(9.0)
+                    .div(5.0)
+                    .add(32.0)
+                    .intoArray(target, targetOffset + i);
+        }
+        for (; i < length; i++) {
+            target[targetOffset + i] = (source[sourceOffset + i] * 9 / 5) + 32;
+        }
+    }
+
+    public static void miles(double[] source, int sourceOffset, double[] target, int targetOffset, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, source, sourceOffset + i)
+                    .mul(0.621371)
+                    .intoArray(target, targetOffset + i);
+        }
+        for (; i < length; i++) {
+            target[targetOffset + i] = source[sourceOffset + i] * 0.621371;
+        }
+    }
+}
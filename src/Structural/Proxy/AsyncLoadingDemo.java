@@ -0,0 +1,36 @@
+package Structural.Proxy;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Demonstrates hiding load latency: a page's images are prefetched in the
+ * background while other work runs, so rendering finds them cached.
+ */
+public class AsyncLoadingDemo {
+    public static void main(String[] args) {
+        ImageLoader loader = new ImageLoader();
+        List<String> page = Arrays.asList("header.jpg", "banner.jpg", "avatar.jpg", "footer.jpg");
+
+        long begin = System.nanoTime();
+        System.out.println("Prefetching " + page.size() + " images, at most 2 at a time...");
+        CompletableFuture<Void> prefetch = loader.prefetch(page, 2);
+
+        // Load a single image without blocking the caller
+        CompletableFuture<Image> logo = loader.loadAsync("logo.png");
+        System.out.println("Doing other work while images load...");
+
+        prefetch.join();
+        logo.join().display();
+
+        System.out.println("\nRendering the page:");
+        for (String filename : page) {
+            new ProxyImage(filename).display();
+        }
+
+        long elapsedMillis = (System.nanoTime() - begin) / 1_000_000;
+        System.out.println("\nElapsed: " + elapsedMillis + " ms");
+        System.out.println(ImageCache.getInstance());
+    }
+}
\ No newline at end of file
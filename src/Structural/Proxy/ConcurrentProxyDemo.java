@@ -0,0 +1,54 @@
+package Structural.Proxy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Demonstrates single-flight loading: many threads display cold proxies for
+ * the same few files at the same moment, and each file is loaded only once.
+ */
+public class ConcurrentProxyDemo {
+    public static void main(String[] args) throws InterruptedException {
+        String[] filenames = { "beach.jpg", "mountains.jpg", "city.jpg" };
+        int threadsPerFile = 8;
+        ImageCache cache = new ImageCache(ImageCache.DEFAULT_MAX_BYTES);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (String filename : filenames) {
+            for (int i = 0; i < threadsPerFile; i++) {
+                // Every thread uses its own proxy instance
+                Image image = new ProxyImage(filename, cache);
+                Thread thread = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    image.display();
+                });
+                thread.start();
+                threads.add(thread);
+            }
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsedMillis = (System.nanoTime() - begin) / 1_000_000;
+
+        long loads = cache.getMissCount();
+        System.out.println("\n=== Results ===");
+        System.out.println("display() calls: " + threads.size());
+        System.out.println("Loads performed: " + loads + " for " + filenames.length + " files");
+        System.out.println("Elapsed: " + elapsedMillis + " ms");
+        System.out.println(cache);
+        if (loads != filenames.length) {
+            throw new IllegalStateException("Expected one load per file but got " + loads);
+        }
+    }
+}
\ No newline at end of file
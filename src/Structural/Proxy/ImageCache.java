@@ -0,0 +1,294 @@
+package Structural.Proxy;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Process-wide cache of loaded images shared by every {@link ProxyImage}.
+ * Entries are keyed by filename and load mode (on the heap or memory-mapped),
+ * weighed by their loaded size and evicted in least-recently-used order once
+ * the memory budget is exceeded.
+ *
+ * Loading is single-flight: the first caller for a filename loads it and
+ * every concurrent caller for the same filename waits on that load. Reads of
+ * an image that is already loaded take no lock.
+ */
+public class ImageCache {
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    private static final ImageCache INSTANCE = new ImageCache(DEFAULT_MAX_BYTES);
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Guards the byte accounting and eviction; never taken by readers
+    private final Object evictionLock = new Object();
+    private long currentBytes;
+    private volatile long maxBytes;
+
+    // A file loaded on the heap and the same file mapped are different images
+    private static final class Key {
+        final String filename;
+        final boolean memoryMapped;
+
+        Key(String filename, boolean memoryMapped) {
+            this.filename = filename;
+            this.memoryMapped = memoryMapped;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && ((Key) other).filename.equals(filename)
+                    && ((Key) other).memoryMapped == memoryMapped;
+        }
+
+        @Override
+        public int hashCode() {
+            return filename.hashCode() * 31 + (memoryMapped ? 1 : 0);
+        }
+    }
+
+    private static final class Entry {
+        final CompletableFuture<RealImage> image = new CompletableFuture<>();
+        volatile long lastAccess = System.nanoTime();
+        // Guarded by evictionLock
+        RealImage loaded;
+        long weight;
+        boolean admitted;
+    }
+
+    public ImageCache(long maxBytes) {
+        setMaxBytes(maxBytes);
+    }
+
+    /**
+     * Get the cache shared by all proxies
+     */
+    public static ImageCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the image loaded on the heap if it is fully loaded, or null
+     * otherwise. Never blocks and never starts a load.
+     */
+    public RealImage getIfPresent(String filename) {
+        return getIfPresent(filename, false);
+    }
+
+    /**
+     * Like {@link #getIfPresent(String)}, for the memory-mapped image when
+     * {@code memoryMapped} is set.
+     */
+    public RealImage getIfPresent(String filename, boolean memoryMapped) {
+        Entry entry = entries.get(new Key(filename, memoryMapped));
+        if (entry == null || !entry.image.isDone() || entry.image.isCompletedExceptionally()) {
+            return null;
+        }
+        hits.increment();
+        entry.lastAccess = System.nanoTime();
+        return entry.image.join();
+    }
+
+    /**
+     * Returns the cached image, loading it if needed: onto the heap with
+     * {@link RealImage#RealImage(String)}, or mapped with
+     * {@link RealImage#mapFromDisk} when {@code memoryMapped} is set. When
+     * several threads ask for the same image at once, only one of them loads
+     * it and the others wait for its result.
+     *
+     * An image larger than the whole budget, or invalidated while it was
+     * loading, is returned but not cached. {@link #isCached} tells the
+     * callers, who must then close it themselves once they are done.
+     */
+    public RealImage get(String filename, boolean memoryMapped) {
+        Key key = new Key(filename, memoryMapped);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            Entry created = new Entry();
+            entry = entries.putIfAbsent(key, created);
+            if (entry == null) {
+                misses.increment();
+                return load(key, created, memoryMapped ? RealImage::mapFromDisk : RealImage::new);
+            }
+        }
+        hits.increment();
+        entry.lastAccess = System.nanoTime();
+        return await(entry);
+    }
+
+    private RealImage load(Key key, Entry entry, Function<String, RealImage> loader) {
+        RealImage image;
+        try {
+            image = loader.apply(key.filename);
+        } catch (RuntimeException | Error e) {
+            // Let the next caller retry instead of caching the failure
+            entries.remove(key, entry);
+            entry.image.completeExceptionally(e);
+            throw e;
+        }
+        // Decide before anyone sees the image, so isCached is already right
+        admit(key, entry, image);
+        entry.image.complete(image);
+        return image;
+    }
+
+    /**
+     * Whether {@code image} is held by this cache, which then closes it on
+     * eviction. Callers close images that are not cached once they are done
+     * with them.
+     */
+    public boolean isCached(RealImage image) {
+        Entry entry = entries.get(new Key(image.getFilename(), image.isMemoryMapped()));
+        return entry != null && entry.image.getNow(null) == image;
+    }
+
+    private static RealImage await(Entry entry) {
+        try {
+            return entry.image.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void admit(Key key, Entry entry, RealImage image) {
+        long weight = image.getSizeInBytes();
+        synchronized (evictionLock) {
+            if (entries.get(key) != entry) {
+                // Invalidated while loading
+                return;
+            }
+            if (weight > maxBytes) {
+                // Caching it would flush everything else and still not fit
+                entries.remove(key, entry);
+                return;
+            }
+            entry.loaded = image;
+            entry.weight = weight;
+            entry.admitted = true;
+            entry.lastAccess = System.nanoTime();
+            currentBytes += weight;
+            evictToBudget();
+        }
+    }
+
+    /**
+     * Drops the file from the cache, both loaded on the heap and mapped.
+     */
+    public void invalidate(String filename) {
+        for (boolean memoryMapped : new boolean[] { false, true }) {
+            Entry removed = entries.remove(new Key(filename, memoryMapped));
+            if (removed != null) {
+                synchronized (evictionLock) {
+                    release(removed);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (evictionLock) {
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next();
+                it.remove();
+                release(entry);
+            }
+        }
+    }
+
+    public void setMaxBytes(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache budget must be positive: " + maxBytes);
+        }
+        synchronized (evictionLock) {
+            this.maxBytes = maxBytes;
+            evictToBudget();
+        }
+    }
+
+    // Closing unmaps memory-mapped images once no reader is using them
+    private void release(Entry entry) {
+        if (entry.admitted) {
+            entry.admitted = false;
+            currentBytes -= entry.weight;
+            // Not entry.image: an entry can be evicted by its own admission,
+            // before its future completes
+            entry.loaded.close();
+        }
+    }
+
+    // Scans for the least recently used entry on each eviction. Evictions only
+    // follow a load, which costs far more than the scan.
+    private void evictToBudget() {
+        while (currentBytes > maxBytes) {
+            Map.Entry<Key, Entry> eldest = null;
+            for (Map.Entry<Key, Entry> candidate : entries.entrySet()) {
+                Entry entry = candidate.getValue();
+                if (entry.admitted
+                        && (eldest == null || entry.lastAccess - eldest.getValue().lastAccess < 0)) {
+                    eldest = candidate;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            entries.remove(eldest.getKey(), eldest.getValue());
+            release(eldest.getValue());
+            evictions.increment();
+        }
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getCurrentBytes() {
+        synchronized (evictionLock) {
+            return currentBytes;
+        }
+    }
+
+    /**
+     * Number of entries, including images that are still loading.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Number of lookups that had to start a load. With single-flight loading
+     * this is also the number of loads performed.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ImageCache [entries=" + size() + ", bytes=" + getCurrentBytes() + "/" + maxBytes
+                + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+                + ", evictions=" + getEvictionCount() + "]";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package Structural.Proxy;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Non-blocking companion to {@link Image}: starts loads in the background so
+ * callers can warm the {@link ImageCache} before the first display().
+ * Loads go through the cache, so they are shared with proxies and with each
+ * other.
+ */
+public class ImageLoader {
+    public static final int DEFAULT_MAX_CONCURRENT_LOADS = 16;
+
+    private static final Executor DEFAULT_EXECUTOR = createDefaultExecutor();
+
+    private final ImageCache cache;
+    private final Executor executor;
+
+    public ImageLoader() {
+        this(ImageCache.getInstance(), DEFAULT_EXECUTOR);
+    }
+
+    public ImageLoader(ImageCache cache, Executor executor) {
+        this.cache = cache;
+        this.executor = executor;
+    }
+
+    /**
+     * Loads the image in the background. Completes immediately when the image
+     * is already cached.
+     */
+    public CompletableFuture<Image> loadAsync(String filename) {
+        RealImage cached = cache.getIfPresent(filename);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return CompletableFuture.supplyAsync(() -> cache.get(filename, false), executor);
+    }
+
+    public CompletableFuture<Void> prefetch(Collection<String> filenames) {
+        return prefetch(filenames, DEFAULT_MAX_CONCURRENT_LOADS);
+    }
+
+    /**
+     * Warms the cache with all given images, running at most
+     * {@code maxConcurrentLoads} loads at once. Prefetching is best effort: a
+     * file that fails to load is skipped and will fail again on display().
+     */
+    public CompletableFuture<Void> prefetch(Collection<String> filenames, int maxConcurrentLoads) {
+        if (maxConcurrentLoads <= 0) {
+            throw new IllegalArgumentException("maxConcurrentLoads must be positive: " + maxConcurrentLoads);
+        }
+        Queue<String> pending = new ConcurrentLinkedQueue<>(new LinkedHashSet<>(filenames));
+        // Each lane loads one file at a time, so the number of lanes caps the
+        // number of concurrent loads without parking extra threads
+        int lanes = Math.min(maxConcurrentLoads, pending.size());
+        CompletableFuture<?>[] running = new CompletableFuture<?>[lanes];
+        for (int i = 0; i < lanes; i++) {
+            running[i] = CompletableFuture.runAsync(() -> drain(pending), executor);
+        }
+        return CompletableFuture.allOf(running);
+    }
+
+    private void drain(Queue<String> pending) {
+        String filename;
+        while ((filename = pending.poll()) != null) {
+            try {
+                cache.get(filename, false);
+            } catch (RuntimeException e) {
+                System.out.println("(Loader) Could not prefetch " + filename + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // Loads spend their time blocked on I/O, so use one virtual thread per
+    // load where the runtime has them (Java 21+), and a pool of daemon threads
+    // that grows on demand otherwise.
+    private static Executor createDefaultExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "image-loader");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
\ No newline at end of file
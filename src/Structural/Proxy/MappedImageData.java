@@ -0,0 +1,146 @@
+package Structural.Proxy;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only memory mapping of an image file. The bytes stay in the OS page
+ * cache and are written to channels straight from the mapping, never copied
+ * onto the heap.
+ *
+ * A single mapping is limited to 2 GB, so larger files are mapped as several
+ * segments. The mapping is reference counted: the owner holds one reference
+ * and every transfer in progress holds another, so closing never unmaps
+ * memory that is still being read.
+ */
+class MappedImageData {
+    // Stay well under the 2 GB limit of a single MappedByteBuffer
+    static final long SEGMENT_SIZE = 1L << 30;
+
+    private static final MethodHandle INVOKE_CLEANER = findInvokeCleaner();
+
+    private final MappedByteBuffer[] segments;
+    private final long size;
+    private final AtomicInteger references = new AtomicInteger(1);
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private MappedImageData(MappedByteBuffer[] segments, long size) {
+        this.segments = segments;
+        this.size = size;
+    }
+
+    static MappedImageData map(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long size = channel.size();
+            int count = (int) ((size + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+            MappedByteBuffer[] segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long position = i * SEGMENT_SIZE;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(SEGMENT_SIZE, size - position));
+            }
+            // The mapping stays valid after the channel is closed
+            return new MappedImageData(segments, size);
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * Writes the whole file to {@code target}. Returns the number of bytes
+     * written, or -1 if the mapping was already closed.
+     */
+    long transferTo(WritableByteChannel target) throws IOException {
+        if (!retain()) {
+            return -1;
+        }
+        try {
+            long written = 0;
+            for (MappedByteBuffer segment : segments) {
+                // duplicate() only copies the position and limit, not the bytes
+                ByteBuffer view = segment.duplicate();
+                while (view.hasRemaining()) {
+                    written += target.write(view);
+                }
+            }
+            return written;
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Drops the owner's reference. The memory is unmapped as soon as no
+     * transfer is using it.
+     */
+    void close() {
+        if (closed.compareAndSet(false, true)) {
+            release();
+        }
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    private boolean retain() {
+        while (true) {
+            int current = references.get();
+            if (current == 0) {
+                return false;
+            }
+            if (references.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void release() {
+        if (references.decrementAndGet() == 0) {
+            unmap();
+        }
+    }
+
+    private void unmap() {
+        if (INVOKE_CLEANER == null) {
+            // The garbage collector unmaps the segments once they are unreachable
+            return;
+        }
+        for (MappedByteBuffer segment : segments) {
+            try {
+                INVOKE_CLEANER.invokeExact((ByteBuffer) segment);
+            } catch (Throwable e) {
+                return;
+            }
+        }
+    }
+
+    // The JDK only unmaps a MappedByteBuffer when it is garbage collected.
+    // sun.misc.Unsafe.invokeCleaner releases it immediately, which matters
+    // when evicting large files.
+    private static MethodHandle findInvokeCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+package Structural.Proxy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Demonstrates memory-mapped images: the file is mapped instead of loaded,
+ * exported straight from the mapping and unmapped when evicted. The same file
+ * loaded onto the heap is a separate cache entry, and an image too large for
+ * the cache is unmapped as soon as it has been exported.
+ */
+public class MappedImageDemo {
+    public static void main(String[] args) throws IOException {
+        Path source = Files.createTempFile("mapped-photo", ".raw");
+        Path export = Files.createTempFile("mapped-photo-export", ".raw");
+        try {
+            writeSampleImage(source, 32 * 1024 * 1024);
+
+            ImageCache cache = new ImageCache(ImageCache.DEFAULT_MAX_BYTES);
+            System.out.println("Loading the file onto the heap first:");
+            new ProxyImage(source.toString(), cache).display();
+
+            ProxyImage image = new ProxyImage(source.toString(), cache, true);
+
+            System.out.println("Displaying the mapped image:");
+            image.display();
+
+            System.out.println("\nExporting straight from the mapping:");
+            try (FileChannel out = FileChannel.open(export, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                long written = image.writeTo(out);
+                System.out.println("Exported " + written + " bytes, file on disk has " + Files.size(export));
+            }
+
+            System.out.println("\nEvicting the image unmaps it:");
+            cache.invalidate(source.toString());
+            System.out.println(cache);
+
+            System.out.println("\nExporting through a cache smaller than the image:");
+            ImageCache small = new ImageCache(1024 * 1024);
+            try (FileChannel out = FileChannel.open(export, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                long written = new ProxyImage(source.toString(), small, true).writeTo(out);
+                System.out.println("Exported " + written + " bytes without caching the mapping: " + small);
+            }
+        } finally {
+            Files.deleteIfExists(source);
+            Files.deleteIfExists(export);
+        }
+    }
+
+    private static void writeSampleImage(Path path, int size) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(64 * 1024);
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            for (int written = 0; written < size; written += chunk.capacity()) {
+                chunk.clear();
+                while (chunk.hasRemaining()) {
+                    chunk.put((byte) chunk.position());
+                }
+                chunk.flip();
+                out.write(chunk);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -1,21 +1,127 @@
 package Structural.Proxy;
 
-public class ProxyImage implements Image {
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.WritableByteChannel;
+
+public class ProxyImage implements Image, AutoCloseable {
     private String filename;
-    private RealImage realImage;
+    private ImageCache cache;
+    private boolean memoryMapped;
+    // Opened on the first region read
+    private volatile TiledImage tiles;
 
     public ProxyImage(String filename) {
+        this(filename, ImageCache.getInstance());
+    }
+
+    public ProxyImage(String filename, ImageCache cache) {
+        this(filename, cache, false);
+    }
+
+    /**
+     * @param memoryMapped map the file read-only instead of loading it, see
+     *                     {@link RealImage#mapFromDisk}
+     */
+    public ProxyImage(String filename, ImageCache cache, boolean memoryMapped) {
         this.filename = filename;
+        this.cache = cache;
+        this.memoryMapped = memoryMapped;
     }
 
     @Override
     public void display() {
+        // The loaded image lives in the shared cache, not in the proxy, so it
+        // can be evicted and is loaded only once for all proxies of a file
+        RealImage realImage = cache.getIfPresent(filename, memoryMapped);
         if (realImage == null) {
             System.out.println("(Proxy) First time loading image...");
-            realImage = new RealImage(filename);
+            // Concurrent callers for the same file wait on a single load
+            realImage = cache.get(filename, memoryMapped);
         } else {
             System.out.println("(Proxy) Loading from cache...");
         }
         realImage.display();
+        closeIfUncached(realImage);
+    }
+
+    /**
+     * Exports a memory-mapped image to {@code target} without copying it onto
+     * the heap.
+     *
+     * @throws IllegalStateException if this proxy does not map its image
+     */
+    public long writeTo(WritableByteChannel target) throws IOException {
+        if (!memoryMapped) {
+            throw new IllegalStateException("Image is not memory-mapped: " + filename);
+        }
+        while (true) {
+            RealImage image = cache.get(filename, true);
+            long written;
+            try {
+                written = image.transferTo(target);
+            } finally {
+                closeIfUncached(image);
+            }
+            if (written >= 0) {
+                return written;
+            }
+            // Evicted and unmapped between the lookup and the transfer
+        }
+    }
+
+    // An image too large for the cache, or invalidated while loading, is not
+    // kept by it, so its mapping is released here once used
+    private void closeIfUncached(RealImage image) {
+        if (!cache.isCached(image)) {
+            image.close();
+        }
+    }
+
+    /**
+     * Displays only part of the image. Just the tiles covering the region are
+     * loaded, so this stays fast and small even for multi-gigabyte files.
+     */
+    public void display(Region region) {
+        readRegion(region.getX(), region.getY(), region.getWidth(), region.getHeight());
+        System.out.println("Displaying " + region + " of image: " + filename);
+    }
+
+    /**
+     * Returns the pixels of the region in row-major order, see
+     * {@link TiledImage} for the file layout.
+     */
+    public byte[] readRegion(int x, int y, int width, int height) {
+        try {
+            return tiles().readRegion(new Region(x, y, width, height));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read region of " + filename, e);
+        }
+    }
+
+    private TiledImage tiles() throws IOException {
+        TiledImage result = tiles;
+        if (result == null) {
+            synchronized (this) {
+                result = tiles;
+                if (result == null) {
+                    System.out.println("(Proxy) Opening image for region reads...");
+                    tiles = result = new TiledImage(filename);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Releases the file handle used for region reads. Fully loaded images
+     * belong to the cache and are not affected.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (tiles != null) {
+            tiles.close();
+            tiles = null;
+        }
     }
 }
\ No newline at end of file
@@ -12,5 +12,12 @@ public class ProxyMain {
         // Image will be loaded from cache
         System.out.println("\nSecond time displaying the image:");
         image.display();
+
+        // A different proxy for the same file shares the cached image
+        System.out.println("\nDisplaying the same image through another proxy:");
+        Image sameImage = new ProxyImage("high_resolution_photo.jpg");
+        sameImage.display();
+
+        System.out.println("\n" + ImageCache.getInstance());
     }
 }
\ No newline at end of file
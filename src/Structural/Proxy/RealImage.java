@@ -1,15 +1,49 @@
 package Structural.Proxy;
 
-public class RealImage implements Image {
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public class RealImage implements Image, AutoCloseable {
+    // Size assumed for images that only exist in the simulation
+    static final long SIMULATED_SIZE_BYTES = 4L * 1024 * 1024;
+
     private String filename;
+    private long sizeInBytes;
+    // Only set for memory-mapped images
+    private MappedImageData mapping;
 
     public RealImage(String filename) {
         this.filename = filename;
         loadFromDisk();
     }
 
+    private RealImage(String filename, MappedImageData mapping) {
+        this.filename = filename;
+        this.mapping = mapping;
+        this.sizeInBytes = mapping.size();
+    }
+
+    /**
+     * Maps the file read-only instead of loading it. The bytes stay in the OS
+     * page cache and are served by {@link #writeTo} without being copied onto
+     * the heap.
+     */
+    public static RealImage mapFromDisk(String filename) {
+        System.out.println("Mapping image: " + filename);
+        try {
+            return new RealImage(filename, MappedImageData.map(filename));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map " + filename, e);
+        }
+    }
+
     private void loadFromDisk() {
         System.out.println("Loading image: " + filename);
+        sizeInBytes = sizeOnDisk(filename);
         // Simulate heavy image loading
         try {
             Thread.sleep(2000);
@@ -18,8 +52,75 @@ public class RealImage implements Image {
         }
     }
 
+    private static long sizeOnDisk(String filename) {
+        Path path = Paths.get(filename);
+        if (!Files.isRegularFile(path)) {
+            return SIMULATED_SIZE_BYTES;
+        }
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read size of " + filename, e);
+        }
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    /**
+     * Number of bytes this image occupies once loaded, used by the
+     * {@link ImageCache} to weigh entries against its memory budget.
+     */
+    public long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    public boolean isMemoryMapped() {
+        return mapping != null;
+    }
+
+    /**
+     * Writes the image bytes to {@code target} straight from the memory
+     * mapping.
+     *
+     * @throws IllegalStateException if the image is not memory-mapped or was
+     *                               already closed
+     */
+    public long writeTo(WritableByteChannel target) throws IOException {
+        long written = transferTo(target);
+        if (written < 0) {
+            throw new IllegalStateException("Image was closed: " + filename);
+        }
+        return written;
+    }
+
+    // Returns -1 instead of throwing when the image was closed, so the proxy
+    // can reload an image that was evicted under it
+    long transferTo(WritableByteChannel target) throws IOException {
+        if (mapping == null) {
+            throw new IllegalStateException("Image is not memory-mapped: " + filename);
+        }
+        return mapping.transferTo(target);
+    }
+
+    /**
+     * Releases the memory mapping, if any. Transfers already in progress
+     * finish first. Called by the {@link ImageCache} on eviction.
+     */
+    @Override
+    public void close() {
+        if (mapping != null) {
+            mapping.close();
+        }
+    }
+
     @Override
     public void display() {
-        System.out.println("Displaying image: " + filename);
+        if (mapping != null) {
+            System.out.println("Displaying image: " + filename + " (" + sizeInBytes + " bytes mapped)");
+        } else {
+            System.out.println("Displaying image: " + filename);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package Structural.Proxy;
+
+/**
+ * A rectangular area of an image, in pixels.
+ */
+public final class Region {
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+
+    public Region(int x, int y, int width, int height) {
+        if (x < 0 || y < 0 || width <= 0 || height <= 0) {
+            throw new IllegalArgumentException(
+                    "Invalid region: x=" + x + ", y=" + y + ", width=" + width + ", height=" + height);
+        }
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public String toString() {
+        return "Region [x=" + x + ", y=" + y + ", width=" + width + ", height=" + height + "]";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package Structural.Proxy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Demonstrates region reads: only the tiles under the viewport are read from
+ * a large image, however big the file is.
+ */
+public class RegionProxyDemo {
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("panorama", ".raw");
+        try {
+            // 8192 x 4096 RGB image, about 100 MB on disk
+            TiledImage.write(file, 8192, 4096, 3, (x, y, channel) -> (byte) (x + y + channel));
+            System.out.println("Image file size: " + Files.size(file) + " bytes");
+
+            try (ProxyImage image = new ProxyImage(file.toString())) {
+                Region viewport = new Region(1000, 500, 640, 480);
+
+                long begin = System.nanoTime();
+                image.display(viewport);
+                System.out.println("First viewport took " + (System.nanoTime() - begin) / 1_000 + " us");
+
+                begin = System.nanoTime();
+                byte[] pixels = image.readRegion(1010, 510, 640, 480);
+                System.out.println("Panned viewport took " + (System.nanoTime() - begin) / 1_000 + " us, "
+                        + pixels.length + " bytes");
+
+                // Pixel (1010, 510), first channel
+                System.out.println("Pixel check: " + (pixels[0] == (byte) (1010 + 510)));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package Structural.Proxy;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads regions of a large raw image without loading the whole file.
+ *
+ * The image is split into square tiles. Only the tiles a region touches are
+ * read, one pixel row at a time, and kept in a small LRU cache, so memory and
+ * time to first pixel depend on the viewport size rather than the file size.
+ *
+ * File layout: a 16-byte header (magic, width, height, bytes per pixel, all
+ * big-endian ints) followed by the pixels in row-major order.
+ */
+public class TiledImage implements Closeable {
+    public static final int MAGIC = 0x52415749; // "RAWI"
+    public static final int HEADER_SIZE = 16;
+    public static final int TILE_SIZE = 256;
+    public static final long DEFAULT_MAX_TILE_BYTES = 16L * 1024 * 1024;
+
+    private final String filename;
+    private final FileChannel channel;
+    private final int width;
+    private final int height;
+    private final int bytesPerPixel;
+    private final int tilesPerRow;
+    private final Map<Integer, byte[]> tiles;
+    private long tilesLoaded;
+
+    public TiledImage(String filename) throws IOException {
+        this(filename, DEFAULT_MAX_TILE_BYTES);
+    }
+
+    public TiledImage(String filename, long maxTileBytes) throws IOException {
+        this.filename = filename;
+        this.channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // Keep reading until the header is complete or the file ends
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new IOException("Not a raw tiled image: " + filename);
+            }
+            this.width = header.getInt();
+            this.height = header.getInt();
+            this.bytesPerPixel = header.getInt();
+            if (width <= 0 || height <= 0 || bytesPerPixel <= 0) {
+                throw new IOException("Corrupt image header: " + filename);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.tilesPerRow = (width + TILE_SIZE - 1) / TILE_SIZE;
+
+        long tileBytes = (long) TILE_SIZE * TILE_SIZE * bytesPerPixel;
+        int maxTiles = (int) Math.max(1, maxTileBytes / tileBytes);
+        this.tiles = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, byte[]> eldest) {
+                return size() > maxTiles;
+            }
+        };
+    }
+
+    /**
+     * Writes an image in the raw tiled format, with pixel bytes provided by
+     * {@code pixels}. Handy for tests and demos.
+     */
+    public static void write(Path path, int width, int height, int bytesPerPixel, PixelSource pixels)
+            throws IOException {
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(width).putInt(height).putInt(bytesPerPixel).flip();
+            out.write(header);
+            ByteBuffer row = ByteBuffer.allocate(width * bytesPerPixel);
+            for (int y = 0; y < height; y++) {
+                row.clear();
+                for (int x = 0; x < width; x++) {
+                    for (int b = 0; b < bytesPerPixel; b++) {
+                        row.put(pixels.byteAt(x, y, b));
+                    }
+                }
+                row.flip();
+                while (row.hasRemaining()) {
+                    out.write(row);
+                }
+            }
+        }
+    }
+
+    public interface PixelSource {
+        byte byteAt(int x, int y, int channel);
+    }
+
+    /**
+     * Returns the pixels of the region in row-major order.
+     */
+    public synchronized byte[] readRegion(Region region) throws IOException {
+        int x = region.getX();
+        int y = region.getY();
+        int w = region.getWidth();
+        int h = region.getHeight();
+        if ((long) x + w > width || (long) y + h > height) {
+            throw new IllegalArgumentException(region + " is outside the " + width + "x" + height + " image");
+        }
+        byte[] result = new byte[w * h * bytesPerPixel];
+        int firstTileX = x / TILE_SIZE;
+        int lastTileX = (x + w - 1) / TILE_SIZE;
+        int firstTileY = y / TILE_SIZE;
+        int lastTileY = (y + h - 1) / TILE_SIZE;
+        for (int tileY = firstTileY; tileY <= lastTileY; tileY++) {
+            for (int tileX = firstTileX; tileX <= lastTileX; tileX++) {
+                copyFromTile(tileX, tileY, tile(tileX, tileY), region, result);
+            }
+        }
+        return result;
+    }
+
+    // Copies the part of one tile that overlaps the region into the result
+    private void copyFromTile(int tileX, int tileY, byte[] tile, Region region, byte[] result) {
+        int tileLeft = tileX * TILE_SIZE;
+        int tileTop = tileY * TILE_SIZE;
+        int tileWidth = Math.min(TILE_SIZE, width - tileLeft);
+        int left = Math.max(region.getX(), tileLeft);
+        int right = Math.min(region.getX() + region.getWidth(), tileLeft + tileWidth);
+        int top = Math.max(region.getY(), tileTop);
+        int bottom = Math.min(region.getY() + region.getHeight(), tileTop + TILE_SIZE);
+        int rowBytes = (right - left) * bytesPerPixel;
+        for (int row = top; row < bottom; row++) {
+            int from = ((row - tileTop) * tileWidth + (left - tileLeft)) * bytesPerPixel;
+            int to = ((row - region.getY()) * region.getWidth() + (left - region.getX())) * bytesPerPixel;
+            System.arraycopy(tile, from, result, to, rowBytes);
+        }
+    }
+
+    private byte[] tile(int tileX, int tileY) throws IOException {
+        Integer key = tileY * tilesPerRow + tileX;
+        byte[] tile = tiles.get(key);
+        if (tile == null) {
+            tile = loadTile(tileX, tileY);
+            tiles.put(key, tile);
+        }
+        return tile;
+    }
+
+    // Tile rows are not contiguous in the file, so read them one at a time
+    private byte[] loadTile(int tileX, int tileY) throws IOException {
+        int left = tileX * TILE_SIZE;
+        int top = tileY * TILE_SIZE;
+        int tileWidth = Math.min(TILE_SIZE, width - left);
+        int tileHeight = Math.min(TILE_SIZE, height - top);
+        int rowBytes = tileWidth * bytesPerPixel;
+        byte[] tile = new byte[rowBytes * tileHeight];
+        for (int row = 0; row < tileHeight; row++) {
+            ByteBuffer target = ByteBuffer.wrap(tile, row * rowBytes, rowBytes);
+            long position = HEADER_SIZE + ((long) (top + row) * width + left) * bytesPerPixel;
+            while (target.hasRemaining()) {
+                int read = channel.read(target, position + (rowBytes - target.remaining()));
+                if (read < 0) {
+                    throw new IOException("Unexpected end of file in " + filename);
+                }
+            }
+        }
+        tilesLoaded++;
+        return tile;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getBytesPerPixel() {
+        return bytesPerPixel;
+    }
+
+    /**
+     * Number of tiles read from disk so far, including reloads of evicted
+     * tiles.
+     */
+    public synchronized long getTilesLoaded() {
+        return tilesLoaded;
+    }
+
+    public synchronized int getCachedTileCount() {
+        return tiles.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
\ No newline at end of file